@@ -0,0 +1,64 @@
+package ru.practicum.shareit.bench;
+
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.comment.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Тестовые данные для бенчмарков. Содержимое детерминировано, чтобы результаты разных запусков были сравнимы.
+ */
+final class BenchData {
+
+    static final String[] NAMES = {"Дрель", "Отвертка", "Перфоратор", "Лестница", "Палатка", "Велосипед", "Книга"};
+    static final LocalDateTime NOW = LocalDateTime.of(2023, 6, 1, 12, 0);
+
+    private BenchData() {
+    }
+
+    static User user(long id) {
+        return User.builder().id(id).name("user" + id).email("user" + id + "@mail.ru").build();
+    }
+
+    static Item item(long id, User owner) {
+        String name = NAMES[(int) (id % NAMES.length)];
+        return Item.builder()
+                .id(id)
+                .name(name + " " + id)
+                .description(name + " в хорошем состоянии, выдается на выходные")
+                .available(id % 5 != 0)
+                .owner(owner)
+                .build();
+    }
+
+    static Booking booking(long id, Item item, User booker) {
+        LocalDateTime start = NOW.plusHours(id * 7 % 2000 - 1000);
+        return Booking.builder()
+                .id(id)
+                .start(start)
+                .end(start.plusHours(id % 48 + 1))
+                .item(item)
+                .booker(booker)
+                .status(BookingStatus.values()[(int) (id % BookingStatus.values().length)])
+                .build();
+    }
+
+    static List<Comment> comments(Item item, int count) {
+        List<Comment> comments = new ArrayList<>(count);
+        for (long i = 1; i <= count; i++) {
+            comments.add(Comment.builder()
+                    .id(i)
+                    .text("Отличная вещь, пользовался " + i + " раз")
+                    .item(item)
+                    .author(user(i % 100 + 2))
+                    .created(NOW.minusMinutes(i))
+                    .build());
+        }
+        return comments;
+    }
+}
@@ -0,0 +1,128 @@
+package ru.practicum.shareit.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
+import ru.practicum.shareit.booking.dto.BookingDtoIn;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.dto.UserImportResultDto;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Пакетные пути записи: импорт пользователей из NDJSON и пакетное бронирование.
+ * batchSize=1 отключает пакеты JDBC и показывает, сколько стоила бы запись по одной строке;
+ * ключи в обоих случаях выдают последовательности.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InsertBenchmark {
+
+    private static final int IMPORTED_USERS = 1_000;
+    private static final int ITEMS = 100;
+    private static final int BATCH_BOOKINGS = 100;
+
+    @Param({"1", "50"})
+    private int batchSize;
+
+    private ConfigurableApplicationContext context;
+    private UserService userService;
+    private BookingService bookingService;
+    private UserRepository userRepository;
+    private User booker;
+    private List<Long> itemIds;
+    // уникальные адреса и даты для каждого вызова: повторная запись отклонялась бы без вставки
+    private long invocation;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(ShareItServer.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .run("--spring.datasource.url=jdbc:h2:mem:insert-bench-" + batchSize + ";DB_CLOSE_DELAY=-1",
+                        "--spring.jpa.properties.hibernate.jdbc.batch_size=" + batchSize,
+                        "--shareit.users.import.batch-size=500",
+                        "--logging.level.root=WARN");
+        userService = context.getBean(UserService.class);
+        bookingService = context.getBean(BookingService.class);
+        userRepository = context.getBean(UserRepository.class);
+
+        User owner = userRepository.save(withoutId(BenchData.user(1)));
+        booker = userRepository.save(withoutId(BenchData.user(2)));
+        List<Item> items = new ArrayList<>(ITEMS);
+        for (long i = 1; i <= ITEMS; i++) {
+            Item item = BenchData.item(i, owner);
+            item.setId(null);
+            item.setAvailable(true);
+            items.add(item);
+        }
+        itemIds = new ArrayList<>(ITEMS);
+        context.getBean(ItemRepository.class).saveAll(items).forEach(item -> itemIds.add(item.getId()));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public UserImportResultDto importUsers() throws IOException {
+        long prefix = ++invocation;
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 0; i < IMPORTED_USERS; i++) {
+            ndjson.append("{\"name\":\"user").append(i).append("\",\"email\":\"import").append(prefix).append('-')
+                    .append(i).append("@mail.ru\"}\n");
+        }
+        return userService.importUsers(new ByteArrayInputStream(ndjson.toString().getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Benchmark
+    public List<BookingBatchResultDto> createBookings() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1).plusHours(++invocation);
+        List<BookingDtoIn> bookings = new ArrayList<>(BATCH_BOOKINGS);
+        for (int i = 0; i < BATCH_BOOKINGS; i++) {
+            bookings.add(BookingDtoIn.builder()
+                    .itemId(itemIds.get(i % ITEMS))
+                    .start(start)
+                    .end(start.plusMinutes(30))
+                    .build());
+        }
+        return bookingService.createBookings(booker.getId(), bookings);
+    }
+
+    // идентификаторы выдает база
+    private static User withoutId(User user) {
+        user.setId(null);
+        return user;
+    }
+}
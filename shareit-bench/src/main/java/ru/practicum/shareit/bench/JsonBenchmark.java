@@ -0,0 +1,75 @@
+package ru.practicum.shareit.bench;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import ru.practicum.shareit.booking.dto.BookingDtoOut;
+import ru.practicum.shareit.booking.model.BookingMapper;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemMapper;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+/**
+ * Сериализация ответов сервера. ObjectMapper настраивается так же, как в Spring MVC.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonBenchmark {
+
+    @Param({"10", "1000"})
+    private int comments;
+
+    private ObjectMapper objectMapper;
+    private BookingDtoOut booking;
+    private List<BookingDtoOut> bookings;
+    private ItemDto item;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        Item bookedItem = BenchData.item(1, BenchData.user(1));
+        booking = BookingMapper.toBookingDtoOut(BenchData.booking(1, bookedItem, BenchData.user(2)));
+        // страница бронирований размером по умолчанию
+        bookings = LongStream.rangeClosed(1, 20)
+                .mapToObj(id -> BookingMapper.toBookingDtoOut(BenchData.booking(id, bookedItem, BenchData.user(2))))
+                .collect(Collectors.toList());
+        item = ItemMapper.toItemDto(bookedItem, BenchData.comments(bookedItem, comments),
+                BookingMapper.toShortBookingDto(BenchData.booking(1, bookedItem, BenchData.user(2))),
+                BookingMapper.toShortBookingDto(BenchData.booking(2, bookedItem, BenchData.user(3))));
+    }
+
+    @Benchmark
+    public byte[] bookingDtoOut() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(booking);
+    }
+
+    @Benchmark
+    public byte[] bookingDtoOutPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(bookings);
+    }
+
+    @Benchmark
+    public byte[] itemDto() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(item);
+    }
+}
@@ -0,0 +1,104 @@
+package ru.practicum.shareit.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.booking.dto.BookingDtoOut;
+import ru.practicum.shareit.booking.dto.BookingShortDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingMapper;
+import ru.practicum.shareit.item.comment.Comment;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemMapper;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Преобразование сущностей в DTO: одна вещь с большим числом отзывов, список вещей владельца
+ * с последними и следующими бронированиями и бронирование с вложенными вещью и пользователем.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+
+    private static final int ITEMS = 100;
+
+    @Param({"10", "1000", "10000"})
+    private int comments;
+
+    private Item item;
+    private List<Comment> itemComments;
+    private BookingShortDto lastBooking;
+    private BookingShortDto nextBooking;
+    private List<Item> items;
+    private List<Comment> allComments;
+    private Map<Long, BookingShortDto> lastBookings;
+    private Map<Long, BookingShortDto> nextBookings;
+    private Booking booking;
+
+    @Setup
+    public void setUp() {
+        User owner = BenchData.user(1);
+        item = BenchData.item(1, owner);
+        itemComments = BenchData.comments(item, comments);
+        lastBooking = BookingMapper.toShortBookingDto(BenchData.booking(1, item, BenchData.user(2)));
+        nextBooking = BookingMapper.toShortBookingDto(BenchData.booking(2, item, BenchData.user(3)));
+
+        // те же отзывы, распределенные по вещам владельца
+        items = new ArrayList<>(ITEMS);
+        lastBookings = new HashMap<>();
+        nextBookings = new HashMap<>();
+        for (long id = 1; id <= ITEMS; id++) {
+            Item ownerItem = BenchData.item(id, owner);
+            items.add(ownerItem);
+            lastBookings.put(id, BookingMapper.toShortBookingDto(BenchData.booking(id * 2, ownerItem, BenchData.user(2))));
+            nextBookings.put(id, BookingMapper.toShortBookingDto(BenchData.booking(id * 2 + 1, ownerItem,
+                    BenchData.user(3))));
+        }
+        allComments = new ArrayList<>(comments);
+        for (Comment comment : itemComments) {
+            allComments.add(Comment.builder()
+                    .id(comment.getId())
+                    .text(comment.getText())
+                    .item(items.get((int) (comment.getId() % ITEMS)))
+                    .author(comment.getAuthor())
+                    .created(comment.getCreated())
+                    .build());
+        }
+
+        booking = BenchData.booking(1, item, BenchData.user(2));
+    }
+
+    @Benchmark
+    public ItemDto toItemDto() {
+        return ItemMapper.toItemDto(item, itemComments, lastBooking, nextBooking);
+    }
+
+    @Benchmark
+    public List<ItemDto> toItemDtos() {
+        return ItemMapper.toItemDtos(items, allComments, lastBookings, nextBookings);
+    }
+
+    @Benchmark
+    public BookingDtoOut toBookingDtoOut() {
+        return BookingMapper.toBookingDtoOut(booking);
+    }
+}
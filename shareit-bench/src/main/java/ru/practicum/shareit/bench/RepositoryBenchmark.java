@@ -0,0 +1,147 @@
+package ru.practicum.shareit.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.booking.dto.BookingDtoOut;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.booking.service.StateOfBookingRequest;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Запросы к базе через репозитории и сервис бронирований. Сервер поднимается без веб-слоя
+ * на H2 в памяти, данные заполняются один раз на форк.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RepositoryBenchmark {
+
+    private static final int USERS = 100;
+    private static final int ITEMS = 2_000;
+    private static final int BOOKINGS = 20_000;
+    private static final PageRequest PAGE = PageRequest.of(0, 20);
+
+    private ConfigurableApplicationContext context;
+    private ItemRepository itemRepository;
+    private BookingRepository bookingRepository;
+    private ItemSearchEngine itemSearchEngine;
+    private BookingService bookingService;
+    private User booker;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(ShareItServer.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .run("--spring.datasource.url=jdbc:h2:mem:bench;DB_CLOSE_DELAY=-1",
+                        "--logging.level.root=WARN");
+        itemRepository = context.getBean(ItemRepository.class);
+        bookingRepository = context.getBean(BookingRepository.class);
+        itemSearchEngine = context.getBean(ItemSearchEngine.class);
+        bookingService = context.getBean(BookingService.class);
+
+        List<User> users = new ArrayList<>(USERS);
+        for (long i = 1; i <= USERS; i++) {
+            users.add(withoutId(BenchData.user(i)));
+        }
+        users = context.getBean(UserRepository.class).saveAll(users);
+
+        List<Item> items = new ArrayList<>(ITEMS);
+        for (long i = 1; i <= ITEMS; i++) {
+            items.add(withoutId(BenchData.item(i, users.get((int) (i % USERS)))));
+        }
+        items = itemRepository.saveAll(items);
+        for (Item item : items) {
+            itemSearchEngine.index(item);
+        }
+
+        List<Booking> bookings = new ArrayList<>(BOOKINGS);
+        for (long i = 1; i <= BOOKINGS; i++) {
+            bookings.add(withoutId(BenchData.booking(i, items.get((int) (i % ITEMS)),
+                    users.get((int) (i * 31 % USERS)))));
+        }
+        bookingRepository.saveAll(bookings);
+        booker = users.get(0);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<ItemDto> itemRepositorySearch() {
+        return itemRepository.search("дрел", PAGE);
+    }
+
+    @Benchmark
+    public List<ItemDto> itemSearchEngineSearch() {
+        return itemSearchEngine.search("дрел", 0, 20);
+    }
+
+    @Benchmark
+    public List<BookingDtoOut> bookingRepositoryFindBookerBookings() {
+        return bookingRepository.findBookerBookings(booker.getId(), StateOfBookingRequest.ALL, PAGE);
+    }
+
+    @Benchmark
+    public Collection<BookingDtoOut> bookingServiceGetAllBookingsByUser(BookingState bookingState) {
+        return bookingService.getAllBookingsByUser(booker.getId(), bookingState.state, 0, 20);
+    }
+
+    // идентификаторы выдает база
+    private static User withoutId(User user) {
+        user.setId(null);
+        return user;
+    }
+
+    private static Item withoutId(Item item) {
+        item.setId(null);
+        return item;
+    }
+
+    private static Booking withoutId(Booking booking) {
+        booking.setId(null);
+        return booking;
+    }
+
+    /**
+     * Состояние вынесено отдельно, чтобы параметр размножал только бенчмарк сервиса.
+     */
+    @State(Scope.Benchmark)
+    public static class BookingState {
+        @Param({"ALL", "CURRENT", "PAST", "FUTURE", "WAITING", "REJECTED"})
+        private String state;
+    }
+}
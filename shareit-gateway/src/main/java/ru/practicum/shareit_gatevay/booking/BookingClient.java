@@ -1,64 +1,67 @@
 package ru.practicum.shareit_gatevay.booking;
 
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import org.springframework.web.reactive.function.client.WebClient;
 import ru.practicum.shareit_gatevay.booking.dto.BookingDtoIn;
 import ru.practicum.shareit_gatevay.booking.dto.StateOfBookingRequest;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit_gatevay.client.BaseClient;
+import ru.practicum.shareit_gatevay.client.ShareItServerProperties;
 
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @Service
 public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
 
-    @Autowired
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    public BookingClient(WebClient shareItServerWebClient, ShareItServerProperties properties,
+                         MeterRegistry meterRegistry) {
+        super(shareItServerWebClient, properties, meterRegistry, API_PREFIX);
     }
 
-    public ResponseEntity<Object> addBooking(Long userId, BookingDtoIn bookingDtoIn) {
+    public Mono<ResponseEntity<Object>> addBooking(Long userId, BookingDtoIn bookingDtoIn) {
         return post("", userId, bookingDtoIn);
     }
 
-    public ResponseEntity<Object> approveBooking(Long userId, Long bookingId, Boolean approved) {
+    public Mono<ResponseEntity<Object>> addBookings(Long userId, List<BookingDtoIn> bookingDtoIns) {
+        return post("/batch", userId, bookingDtoIns);
+    }
+
+    public Mono<ResponseEntity<Object>> approveBooking(Long userId, Long bookingId, Boolean approved) {
         Map<String, Object> parameters = Map.of(
                 "approved", approved.toString()
         );
         return patch("/" + bookingId + "?approved={approved}", userId, parameters, null);
     }
 
-    public ResponseEntity<Object> getBooking(Long bookingId, Long userId) {
+    public Mono<ResponseEntity<Object>> getBooking(Long bookingId, Long userId) {
         return get("/" + bookingId, userId);
     }
 
-    public ResponseEntity<Object> getUserBookings(Long userId, StateOfBookingRequest state, Integer from,
-                                                  Integer size) {
-        Map<String, Object> parameters = Map.of(
+    public Mono<ResponseEntity<Object>> getUserBookings(Long userId, StateOfBookingRequest state, Integer from,
+                                                  Integer size, String after, String ifNoneMatch) {
+        Map<String, Object> parameters = new HashMap<>(Map.of(
                 "state", state.name(),
                 "from", from,
                 "size", size
-        );
-        return get("?state={state}&from={from}&size={size}", userId, parameters);
+        ));
+        return get(withCursor("?state={state}&from={from}&size={size}", parameters, after), userId, parameters,
+                ifNoneMatch);
     }
 
-    public ResponseEntity<Object> getBookingsForUserItems(Long userId, StateOfBookingRequest state,
-                                                          Integer from, Integer size) {
-        Map<String, Object> parameters = Map.of(
+    public Mono<ResponseEntity<Object>> getBookingsForUserItems(Long userId, StateOfBookingRequest state,
+                                                          Integer from, Integer size, String after,
+                                                          String ifNoneMatch) {
+        Map<String, Object> parameters = new HashMap<>(Map.of(
                 "state", state.name(),
                 "from", from,
                 "size", size
-        );
-        return get("/owner?state={state}&from={from}&size={size}", userId, parameters);
+        ));
+        return get(withCursor("/owner?state={state}&from={from}&size={size}", parameters, after), userId,
+                parameters, ifNoneMatch);
     }
 }
@@ -2,9 +2,14 @@ package ru.practicum.shareit_gatevay.booking;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit_gatevay.booking.dto.BookingDtoIn;
 import ru.practicum.shareit_gatevay.booking.dto.StateOfBookingRequest;
 import ru.practicum.shareit_gatevay.exception.BookingStateException;
@@ -12,6 +17,7 @@ import ru.practicum.shareit_gatevay.exception.BookingStateException;
 import javax.validation.Valid;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import java.util.List;
 
 @Slf4j
 @RestController
@@ -20,55 +26,76 @@ import javax.validation.constraints.PositiveOrZero;
 @Validated
 public class BookingController {
 
+    private static final int MAX_BATCH_SIZE = 100;
+
     private final BookingClient bookingClient;
     private final BookingValidatorTime bookingValidatorTime;
+    private final BookingEventsClient bookingEventsClient;
 
     @PostMapping
-    public ResponseEntity<Object> createBooking(@RequestHeader("X-Sharer-User-Id") Long userId,
+    public Mono<ResponseEntity<Object>> createBooking(@RequestHeader("X-Sharer-User-Id") Long userId,
                                                 @RequestBody @Valid BookingDtoIn bookingDtoIn) {
         bookingValidatorTime.validateBookingTime(bookingDtoIn.getStart(), bookingDtoIn.getEnd());
         log.info("Добавление пользователем запроса на бронирование: {} ", userId);
         return bookingClient.addBooking(userId, bookingDtoIn);
     }
 
+    @PostMapping("/batch")
+    public Mono<ResponseEntity<Object>> createBookings(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                       @RequestBody List<BookingDtoIn> bookingDtoIns) {
+        bookingValidatorTime.validateBookingBatch(bookingDtoIns, MAX_BATCH_SIZE);
+        log.info("Добавление пользователем {} пакета из {} запросов на бронирование", userId, bookingDtoIns.size());
+        return bookingClient.addBookings(userId, bookingDtoIns);
+    }
+
     @PatchMapping("/{bookingId}")
-    public ResponseEntity<Object> approveBooking(@RequestHeader("X-Sharer-User-Id") Long userId,
+    public Mono<ResponseEntity<Object>> approveBooking(@RequestHeader("X-Sharer-User-Id") Long userId,
                                                  @PathVariable Long bookingId,
                                                  @RequestParam Boolean approved) {
         log.info("Подтверждение или отклонение запроса на бронирование: {} ", userId);
         return bookingClient.approveBooking(userId, bookingId, approved);
     }
 
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<String>> subscribe(@RequestHeader("X-Sharer-User-Id") Long userId) {
+        log.info("Подписка пользователя на события бронирований: {} ", userId);
+        return bookingEventsClient.subscribe(userId);
+    }
+
     @GetMapping("/{bookingId}")
-    public ResponseEntity<Object> getBookingInfo(@RequestHeader("X-Sharer-User-Id") Long userId,
+    public Mono<ResponseEntity<Object>> getBookingInfo(@RequestHeader("X-Sharer-User-Id") Long userId,
                                                  @PathVariable Long bookingId) {
         log.info("Получение информации о бронировании: {} ", bookingId);
         return bookingClient.getBooking(bookingId, userId);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getUserBookings(@RequestHeader("X-Sharer-User-Id") Long userId,
+    public Mono<ResponseEntity<Object>> getUserBookings(@RequestHeader("X-Sharer-User-Id") Long userId,
                                                   @RequestParam(value = "state", defaultValue = "ALL") String stateParam,
                                                   @RequestParam(value = "from", required = false,
                                                           defaultValue = "0") @PositiveOrZero final Integer from,
                                                   @RequestParam(value = "size", required = false,
-                                                          defaultValue = "10") @Positive final Integer size) {
+                                                          defaultValue = "10") @Positive final Integer size,
+                                                  @RequestParam(value = "after", required = false) String after,
+                                                  @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         StateOfBookingRequest state = StateOfBookingRequest.from(stateParam)
                 .orElseThrow(() -> new BookingStateException("Unknown state: " + stateParam));
         log.info("Получены бронирования со статусом {} пользователя с id={}", state, userId);
-        return bookingClient.getUserBookings(userId, state, from, size);
+        return bookingClient.getUserBookings(userId, state, from, size, after, ifNoneMatch);
     }
 
     @GetMapping("/owner")
-    public ResponseEntity<Object> getBookingsForUserItems(@RequestHeader("X-Sharer-User-Id") Long userId,
+    public Mono<ResponseEntity<Object>> getBookingsForUserItems(@RequestHeader("X-Sharer-User-Id") Long userId,
                                                           @RequestParam(value = "state", defaultValue = "ALL") String stateParam,
                                                           @RequestParam(value = "from", required = false,
                                                                   defaultValue = "0") final @PositiveOrZero Integer from,
                                                           @RequestParam(value = "size", required = false,
-                                                                  defaultValue = "10") @Positive final Integer size) {
+                                                                  defaultValue = "10") @Positive final Integer size,
+                                                          @RequestParam(value = "after", required = false) String after,
+                                                          @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         StateOfBookingRequest state = StateOfBookingRequest.from(stateParam)
                 .orElseThrow(() -> new BookingStateException("Unknown state: " + stateParam));
         log.info("Получены бронирования со статусом {} вещей пользователя с id={}", state, userId);
-        return bookingClient.getBookingsForUserItems(userId, state, from, size);
+        return bookingClient.getBookingsForUserItems(userId, state, from, size, after, ifNoneMatch);
     }
 }
@@ -0,0 +1,67 @@
+package ru.practicum.shareit_gatevay.booking;
+
+import io.netty.channel.ChannelOption;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+import ru.practicum.shareit_gatevay.client.ShareItServerProperties;
+
+import javax.annotation.PreDestroy;
+
+/**
+ * Передает клиенту поток событий бронирований сервера без разбора данных событий.
+ * У подписок свой пул соединений: долгие подписки не вытесняют обычные запросы из общего пула.
+ */
+@Service
+public class BookingEventsClient {
+
+    static final String ERROR_EVENT = "error";
+    private static final ParameterizedTypeReference<ServerSentEvent<String>> EVENT_TYPE =
+            new ParameterizedTypeReference<>() {
+            };
+
+    private final ConnectionProvider connectionProvider;
+    private final WebClient webClient;
+
+    public BookingEventsClient(WebClient.Builder builder, ShareItServerProperties properties) {
+        ShareItServerProperties.Events events = properties.getEvents();
+        this.connectionProvider = ConnectionProvider.builder("shareit-server-events")
+                .maxConnections(events.getMaxConnections())
+                .build();
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) properties.getConnectTimeout().toMillis())
+                .responseTimeout(events.getIdleTimeout());
+        this.webClient = builder
+                .baseUrl(properties.getUrl() + "/bookings")
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build();
+    }
+
+    /**
+     * Ошибка сервера (например, неизвестный пользователь) приходит последним событием error с телом ответа:
+     * статус потока уже отправлен клиенту и поменять его нельзя.
+     */
+    public Flux<ServerSentEvent<String>> subscribe(Long userId) {
+        return webClient.get()
+                .uri("/events")
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .header("X-Sharer-User-Id", String.valueOf(userId))
+                .exchangeToFlux(response -> response.statusCode().isError()
+                        ? response.bodyToMono(String.class)
+                        .defaultIfEmpty("")
+                        .map(body -> ServerSentEvent.builder(body).event(ERROR_EVENT).build())
+                        .flux()
+                        : response.bodyToFlux(EVENT_TYPE));
+    }
+
+    @PreDestroy
+    public void dispose() {
+        connectionProvider.dispose();
+    }
+}
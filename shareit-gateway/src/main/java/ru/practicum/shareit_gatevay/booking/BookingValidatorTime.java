@@ -1,8 +1,10 @@
 package ru.practicum.shareit_gatevay.booking;
 
 import org.springframework.stereotype.Service;
+import ru.practicum.shareit_gatevay.booking.dto.BookingDtoIn;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Service
 public class BookingValidatorTime {
@@ -21,4 +23,14 @@ public class BookingValidatorTime {
             throw new IllegalArgumentException("Время начала бронирования указано некорректно.");
         }
     }
+
+    // записи пакета проверяет сервер: ошибка одной записи не отклоняет остальные
+    public void validateBookingBatch(List<BookingDtoIn> bookings, int maxSize) {
+        if (bookings == null || bookings.isEmpty()) {
+            throw new IllegalArgumentException("Пакет бронирований пуст");
+        }
+        if (bookings.size() > maxSize) {
+            throw new IllegalArgumentException("В пакете не может быть больше " + maxSize + " бронирований");
+        }
+    }
 }
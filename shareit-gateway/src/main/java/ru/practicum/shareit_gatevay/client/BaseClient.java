@@ -1,125 +1,231 @@
 package ru.practicum.shareit_gatevay.client;
 
+import java.time.Duration;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
 
-import org.springframework.http.HttpEntity;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.reactive.ClientHttpRequest;
 import org.springframework.lang.Nullable;
-import org.springframework.web.client.HttpStatusCodeException;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClientRequest;
 
 public class BaseClient {
 
-    protected final RestTemplate rest;
+    // заголовки соединения с сервером и те, что Tomcat выставит сам для ответа шлюза
+    private static final Set<String> NOT_RELAYED_HEADERS = Set.of("connection", "keep-alive", "transfer-encoding",
+            "te", "trailer", "upgrade", "proxy-authenticate", "proxy-authorization", "content-length", "date");
 
-    public BaseClient(RestTemplate rest) {
-        this.rest = rest;
+    static final String UPSTREAM_TIMER = "shareit.gateway.upstream";
+    // числовые сегменты пути заменяются шаблоном
+    private static final Pattern ID_SEGMENT = Pattern.compile("/\\d+(?=/|$)");
+
+    protected final WebClient webClient;
+    private final Duration responseTimeout;
+    private final String apiPrefix;
+    private final MeterRegistry meterRegistry;
+
+    public BaseClient(WebClient webClient, ShareItServerProperties properties, MeterRegistry meterRegistry,
+                      String apiPrefix) {
+        this.webClient = webClient.mutate()
+                .baseUrl(properties.getUrl() + apiPrefix)
+                .build();
+        this.responseTimeout = properties.responseTimeout(apiPrefix.substring(1));
+        this.apiPrefix = apiPrefix;
+        this.meterRegistry = meterRegistry;
     }
 
-    protected ResponseEntity<Object> get(String path) {
+    protected Mono<ResponseEntity<Object>> get(String path) {
         return get(path, null, null);
     }
 
-    protected ResponseEntity<Object> get(String path, long userId) {
+    protected Mono<ResponseEntity<Object>> get(String path, long userId) {
         return get(path, userId, null);
     }
 
-    protected ResponseEntity<Object> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
-        return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null);
+    protected Mono<ResponseEntity<Object>> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
+        return get(path, userId, parameters, null);
+    }
+
+    protected Mono<ResponseEntity<Object>> get(String path, Long userId, @Nullable Map<String, Object> parameters,
+                                               @Nullable String ifNoneMatch) {
+        return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null, ifNoneMatch);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, T body) {
+    protected <T> Mono<ResponseEntity<Object>> post(String path, T body) {
         return post(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, long userId, T body) {
+    protected <T> Mono<ResponseEntity<Object>> post(String path, long userId, T body) {
         return post(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
-        return makeAndSendRequest(HttpMethod.POST, path, userId, parameters, body);
+    protected <T> Mono<ResponseEntity<Object>> post(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+        return makeAndSendRequest(HttpMethod.POST, path, userId, parameters, body, null);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, long userId, T body) {
+    protected <T> Mono<ResponseEntity<Object>> put(String path, long userId, T body) {
         return put(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, long userId, @Nullable Map<String,
+    protected <T> Mono<ResponseEntity<Object>> put(String path, long userId, @Nullable Map<String,
             Object> parameters, T body) {
-        return makeAndSendRequest(HttpMethod.PUT, path, userId, parameters, body);
+        return makeAndSendRequest(HttpMethod.PUT, path, userId, parameters, body, null);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, T body) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, T body) {
         return patch(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, long userId) {
         return patch(path, userId, null, null);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId, T body) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, long userId, T body) {
         return patch(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, Long userId, @Nullable Map<String,
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, Long userId, @Nullable Map<String,
             Object> parameters, T body) {
-        return makeAndSendRequest(HttpMethod.PATCH, path, userId, parameters, body);
+        return makeAndSendRequest(HttpMethod.PATCH, path, userId, parameters, body, null);
     }
 
-    protected ResponseEntity<Object> delete(String path) {
+    protected Mono<ResponseEntity<Object>> delete(String path) {
         return delete(path, null, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, long userId) {
+    protected Mono<ResponseEntity<Object>> delete(String path, long userId) {
         return delete(path, userId, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
-        return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null);
+    protected Mono<ResponseEntity<Object>> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
+        return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null, null);
     }
 
-    private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId,
-                                                          @Nullable Map<String, Object> parameters, @Nullable T body) {
-        HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
-
-        ResponseEntity<Object> shareitServerResponse;
-        try {
-            if (parameters != null) {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class, parameters);
-            } else {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class);
-            }
-        } catch (HttpStatusCodeException e) {
-            return ResponseEntity.status(e.getStatusCode()).body(e.getResponseBodyAsByteArray());
+    // курсор непрозрачен для шлюза и передается серверу как есть
+    protected static String withCursor(String path, Map<String, Object> parameters, @Nullable String after) {
+        if (after == null) {
+            return path;
         }
-        return prepareGatewayResponse(shareitServerResponse);
-    }
-
-    private HttpHeaders defaultHeaders(Long userId) {
+        parameters.put("after", after);
+        return path + (path.contains("?") ? "&" : "?") + "after={after}";
+    }
+
+    private <T> Mono<ResponseEntity<Object>> makeAndSendRequest(HttpMethod method, String path, Long userId,
+                                                                @Nullable Map<String, Object> parameters,
+                                                                @Nullable T body, @Nullable String ifNoneMatch) {
+        WebClient.RequestBodySpec request = webClient.method(method)
+                .uri(path, parameters != null ? parameters : Map.of())
+                .headers(headers -> headers.addAll(defaultHeaders(userId, ifNoneMatch)))
+                .httpRequest(this::applyResponseTimeout);
+        if (body != null) {
+            request.bodyValue(body);
+        }
+        return timed(relay(request), method, path);
+    }
+
+    /**
+     * POST, тело которого передается серверу по мере чтения, не собираясь в памяти шлюза целиком.
+     */
+    protected Mono<ResponseEntity<Object>> postStream(String path, MediaType contentType, Flux<DataBuffer> body) {
+        WebClient.RequestHeadersSpec<?> request = webClient.post()
+                .uri(path)
+                .headers(headers -> {
+                    headers.addAll(defaultHeaders(null, null));
+                    headers.setContentType(contentType);
+                })
+                .httpRequest(this::applyResponseTimeout)
+                .body(BodyInserters.fromDataBuffers(body));
+        return timed(relay(request), HttpMethod.POST, path);
+    }
+
+    // тело передается клиенту потоком буферов, без разбора JSON
+    private static Mono<ResponseEntity<Object>> relay(WebClient.RequestHeadersSpec<?> request) {
+        return request.retrieve()
+                .onStatus(status -> true, serverResponse -> Mono.empty())
+                .toEntityFlux(DataBuffer.class)
+                .map(BaseClient::prepareGatewayResponse);
+    }
+
+    private void applyResponseTimeout(ClientHttpRequest httpRequest) {
+        HttpClientRequest nativeRequest = httpRequest.getNativeRequest();
+        nativeRequest.responseTimeout(responseTimeout);
+    }
+
+    // от отправки запроса до получения заголовков ответа
+    private Mono<ResponseEntity<Object>> timed(Mono<ResponseEntity<Object>> response, HttpMethod method,
+                                               String path) {
+        String route = routeOf(path);
+        return Mono.defer(() -> {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            return response
+                    .doOnSuccess(entity -> sample.stop(upstreamTimer(method, route,
+                            String.valueOf(entity.getStatusCodeValue()))))
+                    .doOnError(e -> sample.stop(upstreamTimer(method, route, e.getClass().getSimpleName())));
+        });
+    }
+
+    private Timer upstreamTimer(HttpMethod method, String route, String status) {
+        return Timer.builder(UPSTREAM_TIMER)
+                .description("Время ответа сервера ShareIt")
+                .tag("method", method.name())
+                .tag("route", route)
+                .tag("status", status)
+                .register(meterRegistry);
+    }
+
+    private String routeOf(String path) {
+        int query = path.indexOf('?');
+        String route = query < 0 ? path : path.substring(0, query);
+        return ID_SEGMENT.matcher(apiPrefix + route).replaceAll("/{id}");
+    }
+
+    private HttpHeaders defaultHeaders(Long userId, @Nullable String ifNoneMatch) {
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_JSON);
         headers.setAccept(List.of(MediaType.APPLICATION_JSON));
         if (userId != null) {
             headers.set("X-Sharer-User-Id", String.valueOf(userId));
         }
+        if (ifNoneMatch != null) {
+            headers.set(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
         return headers;
     }
 
-    private static ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<Object> response) {
-        if (response.getStatusCode().is2xxSuccessful()) {
-            return response;
-        }
+    private static ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<Flux<DataBuffer>> response) {
+        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCodeValue());
 
-        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode());
+        // 304 передается вместе с ETag
+        if (response.getStatusCode().is2xxSuccessful() || response.getStatusCode() == HttpStatus.NOT_MODIFIED) {
+            response.getHeaders().forEach((name, values) -> {
+                if (!NOT_RELAYED_HEADERS.contains(name.toLowerCase(Locale.ROOT))) {
+                    responseBuilder.header(name, values.toArray(String[]::new));
+                }
+            });
+        } else if (response.getHeaders().getContentType() != null) {
+            responseBuilder.contentType(response.getHeaders().getContentType());
+        }
 
-        if (response.hasBody()) {
+        // без Content-Type тела нет, пустой поток дочитывается для освобождения соединения
+        if (response.getHeaders().getContentType() != null) {
             return responseBuilder.body(response.getBody());
         }
-
+        response.getBody().subscribe(DataBufferUtils::release);
         return responseBuilder.build();
     }
 }
@@ -0,0 +1,55 @@
+package ru.practicum.shareit_gatevay.client;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+// пишет клиенту тело ответа сервера по мере получения буферов, не собирая его в памяти
+public class DataBufferFluxHttpMessageConverter extends AbstractHttpMessageConverter<Flux<DataBuffer>> {
+
+    private static final int PREFETCH = 4;
+
+    public DataBufferFluxHttpMessageConverter() {
+        super(MediaType.APPLICATION_OCTET_STREAM, MediaType.ALL);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return Flux.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    protected boolean canRead(MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected Flux<DataBuffer> readInternal(Class<? extends Flux<DataBuffer>> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Тело запроса не читается как поток буферов", inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(Flux<DataBuffer> body, HttpOutputMessage outputMessage) throws IOException {
+        OutputStream out = outputMessage.getBody();
+        try (Stream<DataBuffer> buffers = body.doOnDiscard(DataBuffer.class, DataBufferUtils::release)
+                .toStream(PREFETCH)) {
+            Iterator<DataBuffer> iterator = buffers.iterator();
+            while (iterator.hasNext()) {
+                try (InputStream in = iterator.next().asInputStream(true)) {
+                    in.transferTo(out);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package ru.practicum.shareit_gatevay.client;
+
+import io.netty.channel.ChannelOption;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.util.List;
+
+// один неблокирующий клиент с общим пулом соединений для всех клиентов шлюза
+@Configuration
+@EnableConfigurationProperties(ShareItServerProperties.class)
+public class ShareItServerClientConfig implements WebMvcConfigurer {
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider shareItServerConnectionProvider(ShareItServerProperties properties) {
+        ShareItServerProperties.Pool pool = properties.getPool();
+        return ConnectionProvider.builder("shareit-server")
+                .maxConnections(pool.getMaxConnections())
+                .pendingAcquireMaxCount(pool.getPendingAcquireMaxCount())
+                .pendingAcquireTimeout(pool.getPendingAcquireTimeout())
+                .maxIdleTime(pool.getMaxIdleTime())
+                .build();
+    }
+
+    @Bean
+    public WebClient shareItServerWebClient(WebClient.Builder builder, ConnectionProvider connectionProvider,
+                                            ShareItServerProperties properties) {
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) properties.getConnectTimeout().toMillis())
+                .responseTimeout(properties.getResponseTimeout());
+        return builder
+                .baseUrl(properties.getUrl())
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build();
+    }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        // раньше Jackson: тот взялся бы сериализовать сам Flux
+        converters.add(0, new DataBufferFluxHttpMessageConverter());
+    }
+}
@@ -0,0 +1,45 @@
+package ru.practicum.shareit_gatevay.client;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "shareit-server")
+public class ShareItServerProperties {
+
+    private String url;
+    private Duration connectTimeout = Duration.ofSeconds(2);
+    // таймаут ответа по умолчанию, если для маршрута не задан свой
+    private Duration responseTimeout = Duration.ofSeconds(10);
+    // таймауты ответа по маршрутам: ключ - префикс API без слэша (users, items, bookings, requests)
+    private Map<String, Duration> routeTimeouts = new HashMap<>();
+    private final Pool pool = new Pool();
+    private final Events events = new Events();
+
+    public Duration responseTimeout(String route) {
+        return routeTimeouts.getOrDefault(route, responseTimeout);
+    }
+
+    @Data
+    public static class Pool {
+        private int maxConnections = 500;
+        // запросы сверх maxConnections ждут свободного соединения в очереди такого размера
+        private int pendingAcquireMaxCount = 1000;
+        private Duration pendingAcquireTimeout = Duration.ofSeconds(5);
+        private Duration maxIdleTime = Duration.ofSeconds(30);
+    }
+
+    /**
+     * Отдельный пул для подписок на события: каждая подписка держит соединение с сервером, пока открыта.
+     */
+    @Data
+    public static class Events {
+        private int maxConnections = 10000;
+        // сервер шлет пустой комментарий чаще, поэтому тишина дольше означает потерянное соединение
+        private Duration idleTimeout = Duration.ofSeconds(60);
+    }
+}
@@ -1,9 +1,12 @@
 package ru.practicum.shareit_gatevay.exception;
 
+import io.netty.handler.timeout.ReadTimeoutException;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
 
 import java.util.Map;
 
@@ -21,4 +24,12 @@ public class ExceptionsHandler {
     public ErrorResponse handleRequestException(final BookingStateException e) {
         return new ErrorResponse(e.getMessage());
     }
+
+    @ExceptionHandler
+    public ResponseEntity<ErrorResponse> handleServerUnavailable(final WebClientRequestException e) {
+        // сервер не ответил за таймаут маршрута или соединение не установлено
+        HttpStatus status = e.getCause() instanceof ReadTimeoutException
+                ? HttpStatus.GATEWAY_TIMEOUT : HttpStatus.BAD_GATEWAY;
+        return ResponseEntity.status(status).body(new ErrorResponse(e.getMessage()));
+    }
 }
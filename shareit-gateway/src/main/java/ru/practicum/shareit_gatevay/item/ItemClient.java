@@ -1,68 +1,75 @@
 package ru.practicum.shareit_gatevay.item;
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit_gatevay.client.BaseClient;
+import ru.practicum.shareit_gatevay.client.ShareItServerProperties;
 import ru.practicum.shareit_gatevay.item.dto.CommentShortDto;
 import ru.practicum.shareit_gatevay.item.dto.ItemDto;
 import ru.practicum.shareit_gatevay.item.dto.ItemUpdateDto;
 
+import java.util.HashMap;
 import java.util.Map;
 
 @Service
 public class ItemClient extends BaseClient {
     private static final String API_PREFIX = "/items";
 
-    @Autowired
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    public ItemClient(WebClient shareItServerWebClient, ShareItServerProperties properties,
+                      MeterRegistry meterRegistry) {
+        super(shareItServerWebClient, properties, meterRegistry, API_PREFIX);
     }
 
-    public ResponseEntity<Object> addItem(Long userId, ItemDto itemDto) {
+    public Mono<ResponseEntity<Object>> addItem(Long userId, ItemDto itemDto) {
         return post("", userId, itemDto);
     }
 
-    public ResponseEntity<Object> getItemById(Long itemId, Long userId) {
+    public Mono<ResponseEntity<Object>> getItemById(Long itemId, Long userId) {
         return get("/" + itemId, userId);
     }
 
-    public ResponseEntity<Object> updateItem(Long userId, Long itemId, ItemUpdateDto itemDto)  {
+    public Mono<ResponseEntity<Object>> updateItem(Long userId, Long itemId, ItemUpdateDto itemDto)  {
         return patch("/" + itemId, userId, itemDto);
     }
 
-    public ResponseEntity<Object> getAllItemsByOwnerId(Long userId, Integer from, Integer size)  {
-        Map<String, Object> parameters = Map.of(
+    public Mono<ResponseEntity<Object>> getAllItemsByOwnerId(Long userId, Integer from, Integer size, String after,
+                                                         String ifNoneMatch)  {
+        Map<String, Object> parameters = new HashMap<>(Map.of(
                 "from", from,
                 "size", size
-        );
-        return get("?from={from}&size={size}", userId, parameters);
+        ));
+        return get(withCursor("?from={from}&size={size}", parameters, after), userId, parameters, ifNoneMatch);
     }
 
-    public ResponseEntity<Object> searchItem(Long userId, String text, Integer from, Integer size) {
-        Map<String, Object> parameters = Map.of(
+    public Mono<ResponseEntity<Object>> searchItem(Long userId, String text, Integer from, Integer size, String after,
+                                                   String ifNoneMatch) {
+        Map<String, Object> parameters = new HashMap<>(Map.of(
                 "text", text,
                 "from", from,
                 "size", size
-        );
-        return get("/search?text={text}&from={from}&size={size}", userId, parameters);
+        ));
+        return get(withCursor("/search?text={text}&from={from}&size={size}", parameters, after), userId, parameters,
+                ifNoneMatch);
     }
 
-    public ResponseEntity<Object> findAll() {
+    public Mono<ResponseEntity<Object>> findAll() {
         return get("");
     }
 
-    public ResponseEntity<Object> addNewComment(CommentShortDto commentDto, Long itemId, Long userId) {
+    public Mono<ResponseEntity<Object>> addNewComment(CommentShortDto commentDto, Long itemId, Long userId) {
         return post("/" + itemId + "/comment", userId, commentDto);
     }
 
+    public Mono<ResponseEntity<Object>> getItemComments(Long userId, Long itemId, Integer size, String after,
+                                                        String ifNoneMatch) {
+        Map<String, Object> parameters = new HashMap<>(Map.of(
+                "itemId", itemId,
+                "size", size
+        ));
+        return get(withCursor("/{itemId}/comments?size={size}", parameters, after), userId, parameters, ifNoneMatch);
+    }
+
 
 }
@@ -2,9 +2,11 @@ package ru.practicum.shareit_gatevay.item;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit_gatevay.item.dto.CommentShortDto;
 import ru.practicum.shareit_gatevay.item.dto.ItemDto;
 import ru.practicum.shareit_gatevay.item.dto.ItemUpdateDto;
@@ -26,7 +28,7 @@ public class ItemController {
 
     // Добавление новой вещи пользователем
     @PostMapping
-    public ResponseEntity<Object> addItem(@RequestHeader("X-Sharer-User-Id") Long userId,
+    public Mono<ResponseEntity<Object>> addItem(@RequestHeader("X-Sharer-User-Id") Long userId,
                                           @RequestBody @Valid ItemDto itemDto) {
         log.info("Пользователь с id={} создал вещь {}", userId, itemDto.getName());
         return itemClient.addItem(userId, itemDto);
@@ -34,7 +36,7 @@ public class ItemController {
 
     // Просмотр информации о конкретной вещи по её идентификатору
     @GetMapping("/{itemId}")
-    public ResponseEntity<Object> getItemById(@PathVariable("itemId") Long itemId,
+    public Mono<ResponseEntity<Object>> getItemById(@PathVariable("itemId") Long itemId,
                                               @RequestHeader("X-Sharer-User-Id") Long userId) {
         log.info("Пользователем с id={} получена вещь с id={}", userId, itemId);
         return itemClient.getItemById(itemId, userId);
@@ -42,7 +44,7 @@ public class ItemController {
 
     // Редактирование вещи
     @PatchMapping("/{itemId}")
-    public ResponseEntity<Object> updateItem(@RequestHeader("X-Sharer-User-Id") Long userId,
+    public Mono<ResponseEntity<Object>> updateItem(@RequestHeader("X-Sharer-User-Id") Long userId,
                                              @PathVariable("itemId") Long itemId,
                                              @RequestBody ItemUpdateDto itemDto) {
         log.info("Пользователь с id={} обновил вещь с id={}", userId, itemId);
@@ -51,34 +53,50 @@ public class ItemController {
 
     // Просмотр владельцем списка всех его вещей с указанием названия и описания
     @GetMapping
-    public ResponseEntity<Object> getAllItemsByOwnerId(@RequestHeader("X-Sharer-User-Id") Long userId,
+    public Mono<ResponseEntity<Object>> getAllItemsByOwnerId(@RequestHeader("X-Sharer-User-Id") Long userId,
                                                        @RequestParam(value = "from", required = false, defaultValue = "0")
                                                        @PositiveOrZero final Integer from,
                                                        @RequestParam(value = "size", required = false, defaultValue = "10")
-                                                       @Positive final Integer size) {
+                                                       @Positive final Integer size,
+                                                       @RequestParam(value = "after", required = false) String after,
+                                                       @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
 
         log.info("Просмотр владельцем списка всех его вещей с указанием названия и описания для каждой: {}", userId);
-        return itemClient.getAllItemsByOwnerId(userId, from, size);
+        return itemClient.getAllItemsByOwnerId(userId, from, size, after, ifNoneMatch);
     }
 
     // Поиск вещи потенциальным арендатором
     @GetMapping("/search")
-    public ResponseEntity<Object> searchItems(@RequestHeader("X-Sharer-User-Id") Long userId,
+    public Mono<ResponseEntity<Object>> searchItems(@RequestHeader("X-Sharer-User-Id") Long userId,
                                               @RequestParam("text") String text,
                                               @RequestParam(value = "from", required = false, defaultValue = "0")
                                               @PositiveOrZero final Integer from,
                                               @RequestParam(value = "size", required = false, defaultValue = "10")
-                                              @Positive final Integer size) {
+                                              @Positive final Integer size,
+                                              @RequestParam(value = "after", required = false) String after,
+                                              @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
 
         if (text == null || text.isBlank()) {
-            return ResponseEntity.ok(Collections.emptyList());
+            return Mono.just(ResponseEntity.ok(Collections.emptyList()));
         }
         log.info("Пользователь с id={} выполнил поиск вещи {}", userId, text);
-        return itemClient.searchItem(userId, text, from, size);
+        return itemClient.searchItem(userId, text, from, size, after, ifNoneMatch);
+    }
+
+    // Комментарии к вещи от новых к старым, страницы по курсору
+    @GetMapping("/{itemId}/comments")
+    public Mono<ResponseEntity<Object>> getItemComments(@PathVariable("itemId") Long itemId,
+                                                  @RequestHeader("X-Sharer-User-Id") Long userId,
+                                                  @RequestParam(value = "size", required = false, defaultValue = "10")
+                                                  @Positive final Integer size,
+                                                  @RequestParam(value = "after", required = false) String after,
+                                                  @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        log.info("Пользователь с id={} просматривает комментарии к вещи с id={}", userId, itemId);
+        return itemClient.getItemComments(userId, itemId, size, after, ifNoneMatch);
     }
 
     @PostMapping("/{itemId}/comment")
-    public ResponseEntity<Object> createItemComment(@RequestBody final CommentShortDto commentShortDto,
+    public Mono<ResponseEntity<Object>> createItemComment(@RequestBody final CommentShortDto commentShortDto,
                                                     @PathVariable final Long itemId,
                                                     @RequestHeader("X-Sharer-User-Id") Long userId) {
         if (commentShortDto.getText().isBlank()) {
@@ -1,49 +1,45 @@
 package ru.practicum.shareit_gatevay.request;
 
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit_gatevay.client.BaseClient;
+import ru.practicum.shareit_gatevay.client.ShareItServerProperties;
 import ru.practicum.shareit_gatevay.request.dto.ItemRequestDto;
 
+import java.util.HashMap;
 import java.util.Map;
 
 @Service
 public class ItemRequestClient extends BaseClient {
     private static final String API_PREFIX = "/requests";
 
-    @Autowired
-    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    public ItemRequestClient(WebClient shareItServerWebClient, ShareItServerProperties properties,
+                             MeterRegistry meterRegistry) {
+        super(shareItServerWebClient, properties, meterRegistry, API_PREFIX);
     }
 
-    public ResponseEntity<Object> addRequest(ItemRequestDto itemRequestDto, Long userId) {
+    public Mono<ResponseEntity<Object>> addRequest(ItemRequestDto itemRequestDto, Long userId) {
         return post("", userId, itemRequestDto);
     }
 
-    public ResponseEntity<Object> getUserRequests(Long userId) {
+    public Mono<ResponseEntity<Object>> getUserRequests(Long userId) {
         return get("", userId);
     }
 
-    public ResponseEntity<Object> getRequestById(Long userId, Long requestId) {
+    public Mono<ResponseEntity<Object>> getRequestById(Long userId, Long requestId) {
         return get("/" + requestId, userId);
     }
 
-    public ResponseEntity<Object> getAllRequestsForAllUsers(Long userId, Integer from, Integer size) {
-        Map<String, Object> parameters = Map.of(
+    public Mono<ResponseEntity<Object>> getAllRequestsForAllUsers(Long userId, Integer from, Integer size, String after,
+                                                                  String ifNoneMatch) {
+        Map<String, Object> parameters = new HashMap<>(Map.of(
                 "from", from,
                 "size", size
-        );
-        return get("/all?from={from}&size={size}", userId, parameters);
+        ));
+        return get(withCursor("/all?from={from}&size={size}", parameters, after), userId, parameters, ifNoneMatch);
     }
 
 }
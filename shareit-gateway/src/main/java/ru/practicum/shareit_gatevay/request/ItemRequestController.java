@@ -2,9 +2,11 @@ package ru.practicum.shareit_gatevay.request;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit_gatevay.request.dto.ItemRequestDto;
 
 import javax.validation.Valid;
@@ -22,7 +24,7 @@ public class ItemRequestController {
     private final ItemRequestClient itemRequestClient;
 
     @PostMapping
-    public ResponseEntity<Object> createNewRequest(@RequestHeader("X-Sharer-User-Id") final Long userId,
+    public Mono<ResponseEntity<Object>> createNewRequest(@RequestHeader("X-Sharer-User-Id") final Long userId,
                                                    @RequestBody @Valid ItemRequestDto itemRequestDto) {
         if (itemRequestDto.getDescription() == null || itemRequestDto.getDescription().isBlank()) {
             throw new IllegalArgumentException("Описание запроса не может быть пустым!");
@@ -32,23 +34,25 @@ public class ItemRequestController {
     }
 
     @GetMapping
-    public ResponseEntity<Object> getUserRequests(@RequestHeader("X-Sharer-User-Id") final Long userId) {
+    public Mono<ResponseEntity<Object>> getUserRequests(@RequestHeader("X-Sharer-User-Id") final Long userId) {
         log.info("Получены запросы пользователя c id={}", userId);
         return itemRequestClient.getUserRequests(userId);
     }
 
     @GetMapping("/all")
-    public ResponseEntity<Object> getAllRequests(@RequestHeader("X-Sharer-User-Id") final Long userId,
+    public Mono<ResponseEntity<Object>> getAllRequests(@RequestHeader("X-Sharer-User-Id") final Long userId,
                                                  @RequestParam(value = "from", defaultValue = "0")
                                                  @PositiveOrZero final Integer from,
                                                  @RequestParam(value = "size", defaultValue = "10")
-                                                 @Positive final Integer size) {
+                                                 @Positive final Integer size,
+                                                 @RequestParam(value = "after", required = false) String after,
+                                                 @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         log.info("Получены все запросы пользователем с id={}", userId);
-        return itemRequestClient.getAllRequestsForAllUsers(userId, from, size);
+        return itemRequestClient.getAllRequestsForAllUsers(userId, from, size, after, ifNoneMatch);
     }
 
     @GetMapping("/{requestId}")
-    public ResponseEntity<Object> getRequestById(@RequestHeader("X-Sharer-User-Id") final Long userId,
+    public Mono<ResponseEntity<Object>> getRequestById(@RequestHeader("X-Sharer-User-Id") final Long userId,
                                                  @PathVariable final Long requestId) {
         log.info("Получен запрос с id={} пользователем с id={}", requestId, userId);
         return itemRequestClient.getRequestById(userId, requestId);
@@ -1,47 +1,58 @@
 package ru.practicum.shareit_gatevay.user;
 
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 import ru.practicum.shareit_gatevay.client.BaseClient;
+import ru.practicum.shareit_gatevay.client.ShareItServerProperties;
 import ru.practicum.shareit_gatevay.user.dto.UserDto;
 import ru.practicum.shareit_gatevay.user.dto.UserUpdateDto;
 
+import java.io.InputStream;
+
 @Service
 public class UserClient extends BaseClient {
     private static final String API_PREFIX = "/users";
+    private static final int IMPORT_BUFFER_SIZE = 8192;
 
-    @Autowired
-    public UserClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    public UserClient(WebClient shareItServerWebClient, ShareItServerProperties properties,
+                      MeterRegistry meterRegistry) {
+        super(shareItServerWebClient, properties, meterRegistry, API_PREFIX);
     }
 
-    public ResponseEntity<Object> addUser(UserDto userDto) {
+    public Mono<ResponseEntity<Object>> addUser(UserDto userDto) {
         return post("", userDto);
     }
 
-    public ResponseEntity<Object> getUserById(Long userId) {
+    public Mono<ResponseEntity<Object>> getUserById(Long userId) {
         return get("/" + userId);
     }
 
-    public ResponseEntity<Object> updateUser(Long userId, UserUpdateDto userDto) {
+    public Mono<ResponseEntity<Object>> updateUser(Long userId, UserUpdateDto userDto) {
         return patch("/" + userId, userDto);
     }
 
-    public ResponseEntity<Object> deleteUser(Long userId) {
+    public Mono<ResponseEntity<Object>> deleteUser(Long userId) {
         return delete("/" + userId);
     }
 
-    public ResponseEntity<Object> getUsers() {
+    public Mono<ResponseEntity<Object>> getUsers() {
         return get("");
     }
+
+    public Mono<ResponseEntity<Object>> importUsers(InputStream ndjson) {
+        // поток запроса читается блокирующе, поэтому не на потоках event loop WebClient
+        Flux<DataBuffer> body = DataBufferUtils.readInputStream(() -> ndjson, DefaultDataBufferFactory.sharedInstance,
+                        IMPORT_BUFFER_SIZE)
+                .subscribeOn(Schedulers.boundedElastic());
+        return postStream("/bulk", MediaType.APPLICATION_NDJSON, body);
+    }
 }
@@ -2,14 +2,17 @@ package ru.practicum.shareit_gatevay.user;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit_gatevay.user.dto.UserDto;
 import ru.practicum.shareit_gatevay.user.dto.UserUpdateDto;
 
 import javax.validation.Valid;
+import java.io.InputStream;
 
 @Controller
 @RequiredArgsConstructor
@@ -22,28 +25,35 @@ public class UserController {
 
     //Создание пользователя
     @PostMapping
-    public ResponseEntity<Object> addUser(@RequestBody @Valid UserDto userDto) {
+    public Mono<ResponseEntity<Object>> addUser(@RequestBody @Valid UserDto userDto) {
         log.info("Создан новый пользователь с именем {}", userDto.getName());
         return userClient.addUser(userDto);
     }
 
+    //Импорт пользователей из NDJSON: тело передается серверу потоком, строки проверяет сервер
+    @PostMapping(path = "/bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public Mono<ResponseEntity<Object>> importUsers(InputStream ndjson) {
+        log.info("Импорт пользователей из NDJSON");
+        return userClient.importUsers(ndjson);
+    }
+
     //Получение всех пользователей
     @GetMapping
-    public ResponseEntity<Object> getUsers() {
+    public Mono<ResponseEntity<Object>> getUsers() {
         log.info("Получен список всех пользователей.");
         return userClient.getUsers();
     }
 
     //Получение пользователя по id
     @GetMapping("/{userId}")
-    public ResponseEntity<Object> getUserId(@PathVariable Long userId) {
+    public Mono<ResponseEntity<Object>> getUserId(@PathVariable Long userId) {
         log.info("Получен пользователь с id {}", userId);
         return userClient.getUserById(userId);
     }
 
     //Обновление данных пользователя
     @PatchMapping("/{userId}")
-    public ResponseEntity<Object> updateUser(@PathVariable Long userId,
+    public Mono<ResponseEntity<Object>> updateUser(@PathVariable Long userId,
                                              @RequestBody @Valid UserUpdateDto userDto) {
         log.info("Пользователь с id {} обновлен", userId);
         return userClient.updateUser(userId, userDto);
@@ -51,7 +61,7 @@ public class UserController {
 
     //Удаление пользователя
     @DeleteMapping("/{userId}")
-    public ResponseEntity<Object> deleteUser(@PathVariable Long userId) {
+    public Mono<ResponseEntity<Object>> deleteUser(@PathVariable Long userId) {
         log.info("Пользователь с id {} удален", userId);
         return userClient.deleteUser(userId);
     }
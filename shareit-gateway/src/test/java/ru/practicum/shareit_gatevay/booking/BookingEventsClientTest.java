@@ -0,0 +1,78 @@
+package ru.practicum.shareit_gatevay.booking;
+
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import ru.practicum.shareit_gatevay.client.ShareItServerProperties;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BookingEventsClientTest {
+
+    private static final String EVENT = "{\"bookingId\":1,\"itemId\":2,\"bookerId\":3,\"ownerId\":4,"
+            + "\"status\":\"APPROVED\"}";
+    private static final String NOT_FOUND = "{\"Объект не найден\":\"Пользователь не найден\"}";
+
+    private DisposableServer server;
+    private BookingEventsClient client;
+
+    @BeforeEach
+    void setUp() {
+        server = HttpServer.create()
+                .host("localhost")
+                .port(0)
+                .route(routes -> routes
+                        .get("/bookings/events", (request, response) -> "1".equals(
+                                request.requestHeaders().get("X-Sharer-User-Id"))
+                                ? response.header(HttpHeaderNames.CONTENT_TYPE, MediaType.TEXT_EVENT_STREAM_VALUE)
+                                .sendString(Mono.just(":\n\nid:1\nevent:booking-status\ndata:" + EVENT + "\n\n"),
+                                        StandardCharsets.UTF_8)
+                                : response.status(HttpResponseStatus.NOT_FOUND)
+                                .header(HttpHeaderNames.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                                .sendString(Mono.just(NOT_FOUND), StandardCharsets.UTF_8)))
+                .bindNow();
+        ShareItServerProperties properties = new ShareItServerProperties();
+        properties.setUrl("http://localhost:" + server.port());
+        client = new BookingEventsClient(WebClient.builder(), properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.dispose();
+        server.disposeNow();
+    }
+
+    @Test
+    void subscribe_shouldRelayEventsAndHeartbeats() {
+        List<ServerSentEvent<String>> events = client.subscribe(1L).collectList().block(Duration.ofSeconds(5));
+
+        assertNotNull(events);
+        assertEquals(2, events.size());
+        assertNull(events.get(0).data());
+        assertEquals("1", events.get(1).id());
+        assertEquals("booking-status", events.get(1).event());
+        assertEquals(EVENT, events.get(1).data());
+    }
+
+    @Test
+    void subscribe_shouldTurnServerErrorIntoErrorEvent() {
+        List<ServerSentEvent<String>> events = client.subscribe(99L).collectList().block(Duration.ofSeconds(5));
+
+        assertNotNull(events);
+        assertEquals(1, events.size());
+        assertEquals(BookingEventsClient.ERROR_EVENT, events.get(0).event());
+        assertEquals(NOT_FOUND, events.get(0).data());
+    }
+}
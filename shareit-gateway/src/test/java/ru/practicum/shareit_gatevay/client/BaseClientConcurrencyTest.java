@@ -0,0 +1,141 @@
+package ru.practicum.shareit_gatevay.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.timeout.ReadTimeoutException;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Publisher;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.http.server.HttpServerRequest;
+import reactor.netty.http.server.HttpServerResponse;
+import reactor.netty.resources.ConnectionProvider;
+import ru.practicum.shareit_gatevay.user.UserClient;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// заглушка сервера отвечает с задержкой
+@Slf4j
+class BaseClientConcurrencyTest {
+
+    private static final int REQUESTS = 200;
+    private static final long SERVER_DELAY_MS = 1000;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    private DisposableServer server;
+    private ConnectionProvider connectionProvider;
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @BeforeEach
+    void setUp() {
+        server = HttpServer.create()
+                .host("localhost")
+                .port(0)
+                .route(routes -> routes.get("/users", this::handle).get("/users/{userId}", this::handle))
+                .bindNow();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (connectionProvider != null) {
+            connectionProvider.dispose();
+        }
+        server.disposeNow();
+    }
+
+    @Test
+    void getUsers_shouldServeConcurrentRequestsWithoutThreadPerRequest() {
+        UserClient client = userClient(properties());
+        // прогрев: соединения в пуле уже открыты, как у работающего шлюза
+        Flux.range(0, REQUESTS)
+                .flatMap(i -> client.getUsers().delayUntil(BaseClientConcurrencyTest::drain), REQUESTS)
+                .blockLast(Duration.ofSeconds(30));
+        maxInFlight.set(0);
+
+        long started = System.nanoTime();
+        List<ResponseEntity<Object>> responses = Flux.range(0, REQUESTS)
+                .flatMap(i -> client.getUsers().delayUntil(BaseClientConcurrencyTest::drain), REQUESTS)
+                .collectList()
+                .block(Duration.ofSeconds(30));
+        long elapsedMs = Duration.ofNanos(System.nanoTime() - started).toMillis();
+
+        log.info("{} запросов с задержкой сервера {} мс выполнено за {} мс, одновременно в работе до {}",
+                REQUESTS, SERVER_DELAY_MS, elapsedMs, maxInFlight.get());
+        assertNotNull(responses);
+        assertEquals(REQUESTS, responses.size());
+        assertTrue(responses.stream().allMatch(response -> response.getStatusCode() == HttpStatus.OK));
+        assertTrue(maxInFlight.get() > REQUESTS / 2);
+        // последовательно это заняло бы REQUESTS * SERVER_DELAY_MS = 200 секунд
+        assertTrue(elapsedMs < REQUESTS * SERVER_DELAY_MS / 20);
+    }
+
+    @Test
+    void getUsers_shouldNotExceedConnectionPoolLimit() {
+        ShareItServerProperties properties = properties();
+        properties.getPool().setMaxConnections(10);
+        UserClient client = userClient(properties);
+
+        Flux.range(0, 30)
+                .flatMap(i -> client.getUsers().delayUntil(BaseClientConcurrencyTest::drain), 30)
+                .blockLast(Duration.ofSeconds(30));
+
+        assertTrue(maxInFlight.get() <= 10);
+    }
+
+    @Test
+    void getUserById_shouldFailWithRouteTimeout() {
+        ShareItServerProperties properties = properties();
+        properties.getRouteTimeouts().put("users", Duration.ofMillis(SERVER_DELAY_MS / 2));
+        UserClient client = userClient(properties);
+
+        WebClientRequestException e = assertThrows(WebClientRequestException.class,
+                () -> client.getUserById(1L).block(Duration.ofSeconds(5)));
+
+        assertTrue(e.getCause() instanceof ReadTimeoutException);
+    }
+
+    // тело передается потоком: пока его не дочитали, соединение не возвращается в пул
+    @SuppressWarnings("unchecked")
+    private static Mono<Void> drain(ResponseEntity<Object> response) {
+        return ((Flux<DataBuffer>) response.getBody()).doOnNext(DataBufferUtils::release).then();
+    }
+
+    private ShareItServerProperties properties() {
+        ShareItServerProperties properties = new ShareItServerProperties();
+        properties.setUrl("http://localhost:" + server.port());
+        return properties;
+    }
+
+    private UserClient userClient(ShareItServerProperties properties) {
+        ShareItServerClientConfig config = new ShareItServerClientConfig();
+        connectionProvider = config.shareItServerConnectionProvider(properties);
+        WebClient webClient = config.shareItServerWebClient(WebClient.builder(), connectionProvider, properties);
+        return new UserClient(webClient, properties, meterRegistry);
+    }
+
+    private Publisher<Void> handle(HttpServerRequest request, HttpServerResponse response) {
+        maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+        return Mono.delay(Duration.ofMillis(SERVER_DELAY_MS))
+                .then(response.header(HttpHeaderNames.CONTENT_TYPE, "application/json")
+                        .sendString(Mono.just("[]"))
+                        .then())
+                .doFinally(signal -> inFlight.decrementAndGet());
+    }
+}
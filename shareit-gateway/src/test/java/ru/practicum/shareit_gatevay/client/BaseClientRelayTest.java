@@ -0,0 +1,215 @@
+package ru.practicum.shareit_gatevay.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.http.MockHttpOutputMessage;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.resources.ConnectionProvider;
+import ru.practicum.shareit_gatevay.item.ItemClient;
+import ru.practicum.shareit_gatevay.user.UserClient;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BaseClientRelayTest {
+
+    private static final String USERS = "[ {\"email\" : \"user@mail.ru\", \"id\" : 1, \"name\" : \"Пользователь\"} ]";
+    private static final String ITEMS_ETAG = "W/\"1f\"";
+    private static final String NOT_FOUND = "{\"Объект не найден\":\"Пользователь с id = 99 не найден.\"}";
+    private static final byte[] LARGE = new byte[3 * 1024 * 1024];
+
+    static {
+        new Random(42).nextBytes(LARGE);
+    }
+
+    private DisposableServer server;
+    private ConnectionProvider connectionProvider;
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @BeforeEach
+    void setUp() {
+        server = HttpServer.create()
+                .host("localhost")
+                .port(0)
+                .route(routes -> routes
+                        .get("/users", (request, response) -> response
+                                .header(HttpHeaderNames.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                                .header("X-Next-Cursor", "Mg")
+                                .sendString(Mono.just(USERS), StandardCharsets.UTF_8))
+                        .get("/users/large", (request, response) -> response
+                                .header(HttpHeaderNames.CONTENT_TYPE, MediaType.APPLICATION_OCTET_STREAM_VALUE)
+                                .sendByteArray(Flux.range(0, LARGE.length / 65536)
+                                        .map(i -> Arrays.copyOfRange(LARGE, i * 65536, (i + 1) * 65536))))
+                        .get("/users/{userId}", (request, response) -> response
+                                .status(HttpResponseStatus.NOT_FOUND)
+                                .header(HttpHeaderNames.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                                .sendString(Mono.just(NOT_FOUND), StandardCharsets.UTF_8))
+                        .delete("/users/{userId}", (request, response) -> response.send())
+                        .post("/users/bulk", (request, response) -> MediaType.APPLICATION_NDJSON_VALUE.equals(
+                                request.requestHeaders().get(HttpHeaderNames.CONTENT_TYPE))
+                                ? response.header(HttpHeaderNames.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                                .sendString(request.receive().aggregate().asString(StandardCharsets.UTF_8)
+                                        .map(body -> "{\"lines\":" + body.lines().count() + "}"))
+                                : response.status(HttpResponseStatus.UNSUPPORTED_MEDIA_TYPE).send())
+                        .get("/items", (request, response) -> ITEMS_ETAG.equals(
+                                request.requestHeaders().get(HttpHeaderNames.IF_NONE_MATCH))
+                                ? response.status(HttpResponseStatus.NOT_MODIFIED)
+                                .header(HttpHeaderNames.ETAG, ITEMS_ETAG)
+                                .send()
+                                : response.status(HttpResponseStatus.PRECONDITION_FAILED).send()))
+                .bindNow();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (connectionProvider != null) {
+            connectionProvider.dispose();
+        }
+        server.disposeNow();
+    }
+
+    @Test
+    void getUsers_shouldRelayBodyBytesAndHeaders() {
+        ResponseEntity<Object> response = userClient(properties()).getUsers().block(Duration.ofSeconds(5));
+
+        assertNotNull(response);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertArrayEquals(USERS.getBytes(StandardCharsets.UTF_8), bodyOf(response));
+        assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+        assertEquals("Mg", response.getHeaders().getFirst("X-Next-Cursor"));
+        assertFalse(response.getHeaders().containsKey(HttpHeaders.CONTENT_LENGTH));
+        assertFalse(response.getHeaders().containsKey(HttpHeaders.TRANSFER_ENCODING));
+    }
+
+    @Test
+    void getUserById_shouldKeepErrorStatusAndBody() {
+        ResponseEntity<Object> response = userClient(properties()).getUserById(99L).block(Duration.ofSeconds(5));
+
+        assertNotNull(response);
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        assertArrayEquals(NOT_FOUND.getBytes(StandardCharsets.UTF_8), bodyOf(response));
+        assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+    }
+
+    @Test
+    void deleteUser_shouldReturnEmptyBody() {
+        ResponseEntity<Object> response = userClient(properties()).deleteUser(1L).block(Duration.ofSeconds(5));
+
+        assertNotNull(response);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertFalse(response.hasBody());
+    }
+
+    @Test
+    void importUsers_shouldStreamNdjsonBodyToServer() {
+        byte[] ndjson = "{\"name\":\"Первый\",\"email\":\"first@mail.ru\"}\n{\"name\":\"Второй\"}\n"
+                .getBytes(StandardCharsets.UTF_8);
+
+        ResponseEntity<Object> response = userClient(properties()).importUsers(new ByteArrayInputStream(ndjson))
+                .block(Duration.ofSeconds(5));
+
+        assertNotNull(response);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertArrayEquals("{\"lines\":2}".getBytes(StandardCharsets.UTF_8), bodyOf(response));
+    }
+
+    @Test
+    void requests_shouldBeTimedByRouteAndStatus() {
+        UserClient client = userClient(properties());
+        client.getUserById(99L).block(Duration.ofSeconds(5));
+        client.getUserById(100L).block(Duration.ofSeconds(5));
+        client.getUsers().block(Duration.ofSeconds(5));
+
+        assertEquals(2, meterRegistry.get(BaseClient.UPSTREAM_TIMER)
+                .tags("method", "GET", "route", "/users/{id}", "status", "404")
+                .timer().count());
+        assertEquals(1, meterRegistry.get(BaseClient.UPSTREAM_TIMER)
+                .tags("method", "GET", "route", "/users", "status", "200")
+                .timer().count());
+    }
+
+    @Test
+    void getAllItemsByOwnerId_shouldForwardIfNoneMatchAndRelayNotModifiedWithETag() {
+        ResponseEntity<Object> response = itemClient(properties())
+                .getAllItemsByOwnerId(1L, 0, 10, null, ITEMS_ETAG)
+                .block(Duration.ofSeconds(5));
+
+        assertNotNull(response);
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertEquals(ITEMS_ETAG, response.getHeaders().getETag());
+        assertFalse(response.hasBody());
+    }
+
+    @Test
+    void getLargeResponse_shouldRelayBodyLargerThanCodecBuffer() {
+        ResponseEntity<Object> response = userClient(properties()).get("/large").block(Duration.ofSeconds(5));
+
+        assertNotNull(response);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertArrayEquals(LARGE, bodyOf(response));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void dataBufferFluxConverter_shouldWriteLargeBodyToClient() throws IOException {
+        ResponseEntity<Object> response = userClient(properties()).get("/large").block(Duration.ofSeconds(5));
+        MockHttpOutputMessage outputMessage = new MockHttpOutputMessage();
+
+        assertNotNull(response);
+        new DataBufferFluxHttpMessageConverter().write((Flux<DataBuffer>) response.getBody(),
+                MediaType.APPLICATION_OCTET_STREAM, outputMessage);
+
+        assertArrayEquals(LARGE, outputMessage.getBodyAsBytes());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static byte[] bodyOf(ResponseEntity<Object> response) {
+        DataBuffer body = DataBufferUtils.join((Flux<DataBuffer>) response.getBody()).block(Duration.ofSeconds(5));
+        assertNotNull(body);
+        byte[] bytes = new byte[body.readableByteCount()];
+        body.read(bytes);
+        DataBufferUtils.release(body);
+        return bytes;
+    }
+
+    private ShareItServerProperties properties() {
+        ShareItServerProperties properties = new ShareItServerProperties();
+        properties.setUrl("http://localhost:" + server.port());
+        return properties;
+    }
+
+    private UserClient userClient(ShareItServerProperties properties) {
+        return new UserClient(webClient(properties), properties, meterRegistry);
+    }
+
+    private ItemClient itemClient(ShareItServerProperties properties) {
+        return new ItemClient(webClient(properties), properties, meterRegistry);
+    }
+
+    private WebClient webClient(ShareItServerProperties properties) {
+        ShareItServerClientConfig config = new ShareItServerClientConfig();
+        connectionProvider = config.shareItServerConnectionProvider(properties);
+        return config.shareItServerWebClient(WebClient.builder(), connectionProvider, properties);
+    }
+}
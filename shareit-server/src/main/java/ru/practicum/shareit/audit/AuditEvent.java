@@ -0,0 +1,29 @@
+package ru.practicum.shareit.audit;
+
+import com.fasterxml.jackson.annotation.JsonAnyGetter;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Getter
+@AllArgsConstructor
+public class AuditEvent {
+    @JsonFormat(shape = JsonFormat.Shape.STRING)
+    private final Instant time;
+    private final AuditEventType type;
+    private final Long userId;
+    private final Object[] details;
+
+    @JsonAnyGetter
+    public Map<String, Object> getDetails() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        for (int i = 0; i + 1 < details.length; i += 2) {
+            result.put(String.valueOf(details[i]), details[i + 1]);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,15 @@
+package ru.practicum.shareit.audit;
+
+public enum AuditEventType {
+    USER_CREATED,
+    USER_UPDATED,
+    USER_DELETED,
+    USERS_IMPORTED,
+    ITEM_CREATED,
+    ITEM_UPDATED,
+    COMMENT_ADDED,
+    REQUEST_CREATED,
+    BOOKING_CREATED,
+    BOOKING_APPROVED,
+    BOOKING_REJECTED
+}
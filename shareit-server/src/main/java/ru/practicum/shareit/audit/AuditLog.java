@@ -0,0 +1,125 @@
+package ru.practicum.shareit.audit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+// события пишет в файл отдельный поток, при переполненной очереди событие отбрасывается
+@Slf4j
+@Component
+public class AuditLog {
+
+    static final String EVENTS_COUNTER = "shareit.audit.events";
+    private static final int BATCH_SIZE = 256;
+    private static final long POLL_MILLIS = 100;
+    private static final long SHUTDOWN_MILLIS = 5000;
+
+    private final ObjectMapper objectMapper;
+    private final Path file;
+    private final BlockingQueue<AuditEvent> queue;
+    private final Counter written;
+    private final Counter dropped;
+    private final Thread writer = new Thread(this::drain, "audit-log");
+    private volatile boolean running = true;
+
+    public AuditLog(ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                    @Value("${shareit.audit.file:audit.log}") Path file,
+                    @Value("${shareit.audit.capacity:8192}") int capacity) {
+        this.objectMapper = objectMapper;
+        this.file = file;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.written = Counter.builder(EVENTS_COUNTER).tag("result", "written").register(meterRegistry);
+        this.dropped = Counter.builder(EVENTS_COUNTER).tag("result", "dropped").register(meterRegistry);
+        Gauge.builder("shareit.audit.queue.size", queue, BlockingQueue::size).register(meterRegistry);
+        writer.setDaemon(true);
+    }
+
+    // details - пары ключ-значение; в транзакции событие ставится в очередь после коммита
+    public void record(AuditEventType type, Long userId, Object... details) {
+        AuditEvent event = new AuditEvent(Instant.now(), type, userId, details);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(event);
+                }
+            });
+        } else {
+            enqueue(event);
+        }
+    }
+
+    @PostConstruct
+    public void start() {
+        writer.start();
+    }
+
+    @PreDestroy
+    public void close() throws InterruptedException {
+        running = false;
+        writer.join(SHUTDOWN_MILLIS);
+    }
+
+    private void enqueue(AuditEvent event) {
+        if (!queue.offer(event)) {
+            dropped.increment();
+        }
+    }
+
+    private void drain() {
+        List<AuditEvent> batch = new ArrayList<>(BATCH_SIZE);
+        try (Writer out = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            while (running || !queue.isEmpty()) {
+                AuditEvent first = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, BATCH_SIZE - 1);
+                write(out, batch);
+                batch.clear();
+            }
+        } catch (IOException e) {
+            log.error("Журнал аудита {} недоступен, события больше не записываются", file, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void write(Writer out, List<AuditEvent> batch) {
+        try {
+            for (AuditEvent event : batch) {
+                out.write(objectMapper.writeValueAsString(event));
+                out.write('\n');
+            }
+            // один flush на пачку событий
+            out.flush();
+            written.increment(batch.size());
+        } catch (IOException e) {
+            log.warn("Не удалось записать {} событий в журнал аудита {}", batch.size(), file, e);
+            dropped.increment(batch.size());
+        }
+    }
+}
@@ -2,14 +2,23 @@ package ru.practicum.shareit.booking.controller;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingDtoIn;
 import ru.practicum.shareit.booking.dto.BookingDtoOut;
+import ru.practicum.shareit.booking.service.BookingEventBus;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.exceptoins.BadRequestException;
+import ru.practicum.shareit.pagination.CursorPage;
+import ru.practicum.shareit.pagination.ETags;
 
 import java.util.Collection;
+import java.util.List;
 
 @Slf4j
 @RestController
@@ -19,6 +28,7 @@ import java.util.Collection;
 public class BookingController {
 
     private final BookingService bookingService;
+    private final BookingEventBus bookingEventBus;
 
     @PostMapping
     public BookingDtoOut createBooking(@RequestHeader("X-Sharer-User-Id") Long userId,
@@ -27,6 +37,13 @@ public class BookingController {
         return bookingService.createBooking(userId, bookingDtoIn);
     }
 
+    @PostMapping("/batch")
+    public List<BookingBatchResultDto> createBookings(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                      @RequestBody List<BookingDtoIn> bookingDtoIns) {
+        log.info("Добавление пользователем {} пакета из {} запросов на бронирование", userId, bookingDtoIns.size());
+        return bookingService.createBookings(userId, bookingDtoIns);
+    }
+
     @PatchMapping("/{bookingId}")
     public BookingDtoOut approveBooking(@RequestHeader("X-Sharer-User-Id") Long userId,
                                         @PathVariable Long bookingId,
@@ -35,6 +52,13 @@ public class BookingController {
         return bookingService.approveBooking(bookingId, userId, approved);
     }
 
+    // Подписка букера и владельца вещи на изменения статуса их бронирований
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribe(@RequestHeader("X-Sharer-User-Id") Long userId) {
+        log.info("Пользователь с id={} подписался на события бронирований", userId);
+        return bookingEventBus.subscribe(userId);
+    }
+
     @GetMapping("/{bookingId}")
     public BookingDtoOut getBookingInfo(@RequestHeader("X-Sharer-User-Id") Long userId,
                                         @PathVariable Long bookingId) {
@@ -43,30 +67,46 @@ public class BookingController {
     }
 
     @GetMapping
-    public Collection<BookingDtoOut> getUserBookings(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                                     @RequestParam(defaultValue = "ALL") String state,
-                                                     @RequestParam(value = "from", required = false,
-                                                             defaultValue = "0") final Integer from,
-                                                     @RequestParam(value = "size", required = false,
-                                                             defaultValue = "10") final Integer size) {
+    public ResponseEntity<Collection<BookingDtoOut>> getUserBookings(
+            @RequestHeader("X-Sharer-User-Id") Long userId,
+            @RequestParam(defaultValue = "ALL") String state,
+            @RequestParam(value = "from", required = false, defaultValue = "0") final Integer from,
+            @RequestParam(value = "size", required = false, defaultValue = "10") final Integer size,
+            @RequestParam(value = "after", required = false) String after,
+            WebRequest request) {
+        if (after != null) {
+            CursorPage.checkSize(size);
+            log.info("Получена страница бронирований со статусом {} пользователя с id={}", state, userId);
+            return ETags.okPage(request, bookingService.getAllBookingsByUserVersion(userId, state, after),
+                    () -> bookingService.getAllBookingsByUserAfter(userId, state, after, size));
+        }
         if (from < 0 || size < 0) {
             throw new BadRequestException("Значение from и size не могут быть меньше 0");
         }
         log.info("Получены бронирования со статусом {} пользователя с id={}", state, userId);
-        return bookingService.getAllBookingsByUser(userId, state, from, size);
+        return ETags.ok(request, bookingService.getAllBookingsByUserVersion(userId, state, null),
+                () -> bookingService.getAllBookingsByUser(userId, state, from, size));
     }
 
     @GetMapping("/owner")
-    public Collection<BookingDtoOut> getBookingsForUserItems(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                                             @RequestParam(defaultValue = "ALL") String state,
-                                                             @RequestParam(value = "from", required = false,
-                                                                     defaultValue = "0") final Integer from,
-                                                             @RequestParam(value = "size", required = false,
-                                                                     defaultValue = "10") final Integer size) {
+    public ResponseEntity<Collection<BookingDtoOut>> getBookingsForUserItems(
+            @RequestHeader("X-Sharer-User-Id") Long userId,
+            @RequestParam(defaultValue = "ALL") String state,
+            @RequestParam(value = "from", required = false, defaultValue = "0") final Integer from,
+            @RequestParam(value = "size", required = false, defaultValue = "10") final Integer size,
+            @RequestParam(value = "after", required = false) String after,
+            WebRequest request) {
+        if (after != null) {
+            CursorPage.checkSize(size);
+            log.info("Получена страница бронирований со статусом {} вещей пользователя с id={}", state, userId);
+            return ETags.okPage(request, bookingService.getBookingsForUserItemsVersion(userId, state, after),
+                    () -> bookingService.getBookingsForUserItemsAfter(userId, state, after, size));
+        }
         if (from < 0 || size < 0) {
             throw new BadRequestException("Значение from и size не могут быть меньше 0");
         }
         log.info("Получены бронирования со статусом {} вещей пользователя с id={}", state, userId);
-        return bookingService.getBookingsForUserItems(userId, state, from, size);
+        return ETags.ok(request, bookingService.getBookingsForUserItemsVersion(userId, state, null),
+                () -> bookingService.getBookingsForUserItems(userId, state, from, size));
     }
 }
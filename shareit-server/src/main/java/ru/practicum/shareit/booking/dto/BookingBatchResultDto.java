@@ -0,0 +1,17 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * Результат одной записи пакетного бронирования: созданное бронирование или причина отказа.
+ * Статус совпадает с тем, что вернул бы одиночный POST /bookings для этой записи.
+ */
+@Data
+@Builder
+public class BookingBatchResultDto {
+    private Integer index; // позиция записи в запросе
+    private Integer status;
+    private BookingDtoOut booking;
+    private String error;
+}
@@ -1,7 +1,9 @@
 package ru.practicum.shareit.booking.dto;
 
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.user.dto.UserDto;
@@ -10,6 +12,8 @@ import java.time.LocalDateTime;
 
 @Data
 @Builder
+@NoArgsConstructor
+@AllArgsConstructor
 public class BookingDtoOut {
 
     private Long id;
@@ -18,4 +22,15 @@ public class BookingDtoOut {
     private BookingStatus status;
     private UserDto booker;
     private ItemDto item;
+
+    /**
+     * Конструктор для JPQL-выражения select new: бронирование собирается из колонок выборки, без загрузки сущностей.
+     */
+    public BookingDtoOut(Long id, LocalDateTime start, LocalDateTime end, BookingStatus status,
+                         Long bookerId, String bookerName, String bookerEmail,
+                         Long itemId, String itemName, String itemDescription, Boolean itemAvailable,
+                         Long itemRequestId) {
+        this(id, start, end, status, new UserDto(bookerId, bookerName, bookerEmail),
+                new ItemDto(itemId, itemName, itemDescription, itemAvailable, itemRequestId));
+    }
 }
@@ -0,0 +1,18 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.Builder;
+import lombok.Data;
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+/**
+ * Изменение статуса бронирования, которое получают подписчики /bookings/events.
+ */
+@Data
+@Builder
+public class BookingStatusEvent {
+    private Long bookingId;
+    private Long itemId;
+    private Long bookerId;
+    private Long ownerId;
+    private BookingStatus status;
+}
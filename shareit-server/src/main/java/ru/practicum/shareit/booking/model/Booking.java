@@ -3,8 +3,12 @@ package ru.practicum.shareit.booking.model;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.UpdateTimestamp;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.migration.IdSequenceMigration;
 import ru.practicum.shareit.user.model.User;
 
 import javax.persistence.*;
@@ -16,20 +20,39 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 @NoArgsConstructor
 @Table(name = "bookings")
+@NamedEntityGraph(name = Booking.WITH_ITEM_AND_BOOKER, attributeNodes = {
+        @NamedAttributeNode("item"),
+        @NamedAttributeNode("booker")
+})
 public class Booking {
+    // форма, в которой бронирование отдается клиенту: BookingDtoOut содержит вещь и бронирующего
+    public static final String WITH_ITEM_AND_BOOKER = "Booking.withItemAndBooker";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bookings_seq")
+    @SequenceGenerator(name = "bookings_seq", sequenceName = "bookings_seq",
+            allocationSize = IdSequenceMigration.ALLOCATION_SIZE)
     private Long id; //уникальный идентификатор бронирования;
     @Column(name = "start_date")
     private LocalDateTime start; //дата и время начала бронирования;
     @Column(name = "end_date")
     private LocalDateTime end; //дата и время конца бронирования;
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "item_id", nullable = false)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
     private Item item; // вещь, которую пользователь бронирует;
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "booker_id", nullable = false)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
     private User booker; //пользователь, который осуществляет бронирование;
     @Enumerated(EnumType.STRING)
     private BookingStatus status; //статус бронирования;
+    @Version
+    private Long version; // номер версии, параллельное изменение того же бронирования завершится конфликтом
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    @EqualsAndHashCode.Exclude
+    private LocalDateTime updatedAt; // время последнего изменения
 }
@@ -1,22 +1,47 @@
 package ru.practicum.shareit.booking.repository;
 
-import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import ru.practicum.shareit.booking.dto.BookingShortView;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
-public interface BookingRepository extends JpaRepository<Booking, Long> {
+public interface BookingRepository extends JpaRepository<Booking, Long>, BookingRepositoryCustom {
+
+    @Override
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    Optional<Booking> findById(Long id);
 
     List<Booking> findByItem(Item item);
 
-    List<Booking> findByBooker(User user, Pageable pageable);
+    @Query(value = "SELECT b.id AS id, b.start_date AS \"start\", b.end_date AS \"end\", b.item_id AS itemId, " +
+            "b.booker_id AS bookerId, b.status AS status " +
+            "FROM (SELECT bk.*, ROW_NUMBER() OVER (PARTITION BY bk.item_id " +
+            "ORDER BY bk.start_date DESC, bk.id DESC) AS rn " +
+            "FROM bookings bk " +
+            "WHERE bk.item_id IN (:itemIds) " +
+            "AND bk.start_date < :now " +
+            "AND bk.status IN ('WAITING', 'APPROVED')) b " +
+            "WHERE b.rn = 1", nativeQuery = true)
+    List<BookingShortView> findLastBookings(Collection<Long> itemIds, LocalDateTime now);
 
-    List<Booking> findByItemOwner(User user, Pageable pageable);
+    @Query(value = "SELECT b.id AS id, b.start_date AS \"start\", b.end_date AS \"end\", b.item_id AS itemId, " +
+            "b.booker_id AS bookerId, b.status AS status " +
+            "FROM (SELECT bk.*, ROW_NUMBER() OVER (PARTITION BY bk.item_id " +
+            "ORDER BY bk.start_date ASC, bk.id ASC) AS rn " +
+            "FROM bookings bk " +
+            "WHERE bk.item_id IN (:itemIds) " +
+            "AND bk.start_date > :now " +
+            "AND bk.status IN ('WAITING', 'APPROVED')) b " +
+            "WHERE b.rn = 1", nativeQuery = true)
+    List<BookingShortView> findNextBookings(Collection<Long> itemIds, LocalDateTime now);
 
     @Query("SELECT CASE WHEN COUNT(b) > 0 THEN true ELSE false END FROM Booking b " +
             "WHERE b.item = :item " +
@@ -24,4 +49,13 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
             "AND b.status NOT IN ('REJECTED') " +
             "AND b.start <= :start")
     boolean existsBookingByItemAndBookerAndStatusNotAndStart(Item item, User booker, LocalDateTime start);
+
+    // единственный диапазон end_date > :start: по индексу (item_id, status, end_date) завершившиеся брони
+    // не читаются; пересечение есть, если самая ранняя из оставшихся начинается до конца новой
+    @Query("SELECT MIN(b.start) FROM Booking b " +
+            "WHERE b.item.id = :itemId " +
+            "AND b.status = 'APPROVED' " +
+            "AND b.end > :start " +
+            "AND b.id <> :excludedId")
+    Optional<LocalDateTime> findEarliestApprovedStartEndingAfter(Long itemId, LocalDateTime start, Long excludedId);
 }
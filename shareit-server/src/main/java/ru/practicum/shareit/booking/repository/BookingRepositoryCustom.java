@@ -0,0 +1,29 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.booking.dto.BookingDtoOut;
+import ru.practicum.shareit.booking.service.StateOfBookingRequest;
+import ru.practicum.shareit.pagination.ListVersion;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// по убыванию (start, id); по курсору страница начинается после (afterStart, afterId), null - первая страница
+public interface BookingRepositoryCustom {
+
+    List<BookingDtoOut> findBookerBookings(Long bookerId, StateOfBookingRequest state, Pageable pageable);
+
+    List<BookingDtoOut> findOwnerBookings(Long ownerId, StateOfBookingRequest state, Pageable pageable);
+
+    List<BookingDtoOut> findBookerBookingsAfter(Long bookerId, StateOfBookingRequest state,
+                                                LocalDateTime afterStart, Long afterId, int limit);
+
+    List<BookingDtoOut> findOwnerBookingsAfter(Long ownerId, StateOfBookingRequest state,
+                                               LocalDateTime afterStart, Long afterId, int limit);
+
+    ListVersion findBookerBookingsVersion(Long bookerId, StateOfBookingRequest state,
+                                          LocalDateTime afterStart, Long afterId);
+
+    ListVersion findOwnerBookingsVersion(Long ownerId, StateOfBookingRequest state,
+                                         LocalDateTime afterStart, Long afterId);
+}
@@ -0,0 +1,156 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.booking.dto.BookingDtoOut;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.service.StateOfBookingRequest;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.pagination.ListVersion;
+import ru.practicum.shareit.user.model.User;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Join;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiFunction;
+
+public class BookingRepositoryCustomImpl implements BookingRepositoryCustom {
+
+    private static final BiFunction<Root<Booking>, Join<Booking, Item>, Path<Long>> BOOKER_ID =
+            (booking, item) -> booking.get("booker").get("id");
+    private static final BiFunction<Root<Booking>, Join<Booking, Item>, Path<Long>> OWNER_ID =
+            (booking, item) -> item.get("owner").get("id");
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<BookingDtoOut> findBookerBookings(Long bookerId, StateOfBookingRequest state, Pageable pageable) {
+        return page(find(BOOKER_ID, bookerId, state, null, null), pageable);
+    }
+
+    @Override
+    public List<BookingDtoOut> findOwnerBookings(Long ownerId, StateOfBookingRequest state, Pageable pageable) {
+        return page(find(OWNER_ID, ownerId, state, null, null), pageable);
+    }
+
+    @Override
+    public List<BookingDtoOut> findBookerBookingsAfter(Long bookerId, StateOfBookingRequest state,
+                                                       LocalDateTime afterStart, Long afterId, int limit) {
+        return find(BOOKER_ID, bookerId, state, afterStart, afterId)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public List<BookingDtoOut> findOwnerBookingsAfter(Long ownerId, StateOfBookingRequest state,
+                                                      LocalDateTime afterStart, Long afterId, int limit) {
+        return find(OWNER_ID, ownerId, state, afterStart, afterId)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public ListVersion findBookerBookingsVersion(Long bookerId, StateOfBookingRequest state,
+                                                 LocalDateTime afterStart, Long afterId) {
+        return version(BOOKER_ID, bookerId, state, afterStart, afterId);
+    }
+
+    @Override
+    public ListVersion findOwnerBookingsVersion(Long ownerId, StateOfBookingRequest state,
+                                                LocalDateTime afterStart, Long afterId) {
+        return version(OWNER_ID, ownerId, state, afterStart, afterId);
+    }
+
+    private static List<BookingDtoOut> page(TypedQuery<BookingDtoOut> query, Pageable pageable) {
+        if (pageable.isPaged()) {
+            query.setFirstResult((int) pageable.getOffset())
+                    .setMaxResults(pageable.getPageSize());
+        }
+        return query.getResultList();
+    }
+
+    private TypedQuery<BookingDtoOut> find(BiFunction<Root<Booking>, Join<Booking, Item>, Path<Long>> userId,
+                                           Long id, StateOfBookingRequest state,
+                                           LocalDateTime afterStart, Long afterId) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<BookingDtoOut> query = cb.createQuery(BookingDtoOut.class);
+        Root<Booking> booking = query.from(Booking.class);
+        Join<Booking, User> booker = booking.join("booker");
+        Join<Booking, Item> item = booking.join("item");
+        Path<LocalDateTime> start = booking.get("start");
+        Path<Long> bookingId = booking.get("id");
+
+        // id запроса берется из внешнего ключа вещи, таблица запросов в выборку не попадает
+        query.select(cb.construct(BookingDtoOut.class,
+                        bookingId, start, booking.get("end"), booking.get("status"),
+                        booker.get("id"), booker.get("name"), booker.get("email"),
+                        item.get("id"), item.get("name"), item.get("description"), item.get("available"),
+                        item.get("request").get("id")))
+                .where(where(cb, booking, item, userId, id, state, afterStart, afterId))
+                .orderBy(cb.desc(start), cb.desc(bookingId));
+        return entityManager.createQuery(query);
+    }
+
+    private ListVersion version(BiFunction<Root<Booking>, Join<Booking, Item>, Path<Long>> userId,
+                                Long id, StateOfBookingRequest state, LocalDateTime afterStart, Long afterId) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ListVersion> query = cb.createQuery(ListVersion.class);
+        Root<Booking> booking = query.from(Booking.class);
+        Join<Booking, User> booker = booking.join("booker");
+        Join<Booking, Item> item = booking.join("item");
+
+        query.select(cb.construct(ListVersion.class,
+                        cb.count(booking), cb.sum(booking.<Long>get("id")),
+                        cb.greatest(booking.<LocalDateTime>get("updatedAt")),
+                        cb.greatest(item.<LocalDateTime>get("updatedAt")),
+                        cb.greatest(booker.<LocalDateTime>get("updatedAt"))))
+                .where(where(cb, booking, item, userId, id, state, afterStart, afterId));
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    private static Predicate[] where(CriteriaBuilder cb, Root<Booking> booking, Join<Booking, Item> item,
+                                     BiFunction<Root<Booking>, Join<Booking, Item>, Path<Long>> userId,
+                                     Long id, StateOfBookingRequest state,
+                                     LocalDateTime afterStart, Long afterId) {
+        Path<LocalDateTime> start = booking.get("start");
+        List<Predicate> where = new ArrayList<>();
+        where.add(cb.equal(userId.apply(booking, item), id));
+        LocalDateTime now = LocalDateTime.now();
+        switch (state) {
+            case CURRENT:
+                where.add(cb.lessThan(start, now));
+                where.add(cb.greaterThan(booking.get("end"), now));
+                break;
+            case PAST:
+                where.add(cb.lessThan(booking.get("end"), now));
+                break;
+            case FUTURE:
+                where.add(cb.greaterThan(start, now));
+                break;
+            case WAITING:
+                where.add(cb.equal(booking.get("status"), BookingStatus.WAITING));
+                break;
+            case REJECTED:
+                where.add(cb.equal(booking.get("status"), BookingStatus.REJECTED));
+                break;
+            default:
+                break;
+        }
+        if (afterStart != null) {
+            // (start, id) < (afterStart, afterId) в порядке сортировки
+            where.add(cb.or(cb.lessThan(start, afterStart),
+                    cb.and(cb.equal(start, afterStart), cb.lessThan(booking.get("id"), afterId))));
+        }
+        return where.toArray(new Predicate[0]);
+    }
+}
@@ -0,0 +1,40 @@
+package ru.practicum.shareit.booking.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Supplier;
+
+/**
+ * Метрики конкуренции за бронирования: время ожидания блокировки строки вещи
+ * и число конфликтов при параллельном изменении одного бронирования.
+ */
+@Component
+public class BookingContentionMetrics {
+
+    private static final String LOCK_WAIT = "shareit.booking.item.lock.wait";
+
+    private final MeterRegistry registry;
+    private final Counter conflicts;
+
+    public BookingContentionMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.conflicts = Counter.builder("shareit.booking.conflicts")
+                .description("Параллельные изменения бронирования, отклоненные по версии")
+                .register(registry);
+    }
+
+    public <T> T recordLockWait(String operation, Supplier<T> lock) {
+        return Timer.builder(LOCK_WAIT)
+                .description("Время ожидания блокировки строки вещи")
+                .tag("operation", operation)
+                .register(registry)
+                .record(lock);
+    }
+
+    public void conflict() {
+        conflicts.increment();
+    }
+}
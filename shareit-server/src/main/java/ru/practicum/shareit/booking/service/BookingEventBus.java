@@ -0,0 +1,143 @@
+package ru.practicum.shareit.booking.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.booking.dto.BookingStatusEvent;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.exceptoins.NotFoundException;
+import ru.practicum.shareit.user.service.UserCache;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Подписки на изменения статуса бронирований: букер и владелец вещи получают событие
+ * по SSE вместо опроса GET /bookings/{bookingId}.
+ * Ожидающее соединение не занимает поток Tomcat. Запись в соединения выполняет один поток шины,
+ * поэтому медленный клиент не задерживает ответ на запрос, изменивший бронирование.
+ */
+@Slf4j
+@Component
+public class BookingEventBus {
+
+    static final String STATUS_EVENT = "booking-status";
+
+    private final UserCache userCache;
+    private final Duration timeout;
+    private final Map<Long, Set<SseEmitter>> subscribers = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService sender = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "booking-events");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public BookingEventBus(UserCache userCache, MeterRegistry meterRegistry,
+                           @Value("${shareit.booking-events.timeout:30m}") Duration timeout,
+                           @Value("${shareit.booking-events.heartbeat:15s}") Duration heartbeat) {
+        this.userCache = userCache;
+        this.timeout = timeout;
+        // пустой комментарий держит соединение открытым через прокси и находит отключившихся клиентов
+        sender.scheduleWithFixedDelay(this::heartbeat, heartbeat.toMillis(), heartbeat.toMillis(),
+                TimeUnit.MILLISECONDS);
+        Gauge.builder("shareit.booking.events.subscribers", subscribers,
+                        map -> map.values().stream().mapToInt(Set::size).sum())
+                .description("Открытые подписки на события бронирований")
+                .register(meterRegistry);
+    }
+
+    public SseEmitter subscribe(Long userId) {
+        userCache.findById(userId).orElseThrow(() -> new NotFoundException("Пользователь не найден"));
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        subscribers.compute(userId, (id, emitters) -> {
+            Set<SseEmitter> result = emitters != null ? emitters : ConcurrentHashMap.newKeySet();
+            result.add(emitter);
+            return result;
+        });
+        emitter.onCompletion(() -> unsubscribe(userId, emitter));
+        emitter.onTimeout(() -> unsubscribe(userId, emitter));
+        emitter.onError(e -> unsubscribe(userId, emitter));
+        return emitter;
+    }
+
+    /**
+     * Событие уходит подписчикам только после коммита: откат не должен попасть к клиенту.
+     */
+    public void publish(Booking booking) {
+        BookingStatusEvent event = BookingStatusEvent.builder()
+                .bookingId(booking.getId())
+                .itemId(booking.getItem().getId())
+                .bookerId(booking.getBooker().getId())
+                .ownerId(booking.getItem().getOwner().getId())
+                .status(booking.getStatus())
+                .build();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    sender.execute(() -> send(event));
+                }
+            });
+        } else {
+            sender.execute(() -> send(event));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sender.shutdownNow();
+        subscribers.values().forEach(emitters -> emitters.forEach(SseEmitter::complete));
+    }
+
+    private void send(BookingStatusEvent event) {
+        for (Long userId : Set.of(event.getBookerId(), event.getOwnerId())) {
+            for (SseEmitter emitter : emittersOf(userId)) {
+                trySend(userId, emitter, SseEmitter.event()
+                        .id(String.valueOf(event.getBookingId()))
+                        .name(STATUS_EVENT)
+                        .data(event, MediaType.APPLICATION_JSON));
+            }
+        }
+    }
+
+    private void heartbeat() {
+        subscribers.forEach((userId, emitters) ->
+                emitters.forEach(emitter -> trySend(userId, emitter, SseEmitter.event().comment(""))));
+    }
+
+    private void trySend(Long userId, SseEmitter emitter, SseEmitter.SseEventBuilder event) {
+        try {
+            emitter.send(event);
+        } catch (IOException | IllegalStateException e) {
+            // клиент отключился или подписка уже завершена
+            log.debug("Подписка пользователя с id={} на события бронирований закрыта: {}", userId, e.getMessage());
+            unsubscribe(userId, emitter);
+        }
+    }
+
+    private List<SseEmitter> emittersOf(Long userId) {
+        Set<SseEmitter> emitters = subscribers.get(userId);
+        return emitters == null ? List.of() : List.copyOf(emitters);
+    }
+
+    private void unsubscribe(Long userId, SseEmitter emitter) {
+        subscribers.computeIfPresent(userId, (id, emitters) -> {
+            emitters.remove(emitter);
+            return emitters.isEmpty() ? null : emitters;
+        });
+    }
+}
@@ -1,14 +1,19 @@
 package ru.practicum.shareit.booking.service;
 
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingDtoIn;
 import ru.practicum.shareit.booking.dto.BookingDtoOut;
+import ru.practicum.shareit.pagination.CursorPage;
 
 import java.util.Collection;
+import java.util.List;
 
 public interface BookingService {
 
     public BookingDtoOut createBooking(Long userId, BookingDtoIn bookingDtoIn);
 
+    List<BookingBatchResultDto> createBookings(Long userId, List<BookingDtoIn> bookingDtoIns);
+
     public BookingDtoOut approveBooking(Long bookingId, Long owner, Boolean isApproved);
 
     BookingDtoOut getBooking(Long bookingId, Long userId);
@@ -16,4 +21,12 @@ public interface BookingService {
     Collection<BookingDtoOut> getAllBookingsByUser(Long userId, String state, Integer from, Integer size);
 
     Collection<BookingDtoOut> getBookingsForUserItems(Long userId, String state, Integer from, Integer size);
+
+    CursorPage<BookingDtoOut> getAllBookingsByUserAfter(Long userId, String state, String after, Integer size);
+
+    CursorPage<BookingDtoOut> getBookingsForUserItemsAfter(Long userId, String state, String after, Integer size);
+
+    String getAllBookingsByUserVersion(Long userId, String state, String after);
+
+    String getBookingsForUserItemsVersion(Long userId, String state, String after);
 }
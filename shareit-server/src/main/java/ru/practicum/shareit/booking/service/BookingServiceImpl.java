@@ -3,9 +3,13 @@ package ru.practicum.shareit.booking.service;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.audit.AuditEventType;
+import ru.practicum.shareit.audit.AuditLog;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingDtoIn;
 import ru.practicum.shareit.booking.dto.BookingDtoOut;
 import ru.practicum.shareit.booking.model.Booking;
@@ -15,16 +19,22 @@ import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.exceptoins.*;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemSummaryUpdater;
+import ru.practicum.shareit.pagination.Cursor;
+import ru.practicum.shareit.pagination.CursorPage;
 import ru.practicum.shareit.user.model.User;
-import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserCache;
 
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -32,26 +42,87 @@ import java.util.stream.Stream;
 @Slf4j
 public class BookingServiceImpl implements BookingService {
 
-    private final UserRepository userRepository;
+    private final UserCache userCache;
     private final ItemRepository itemRepository;
     private final BookingRepository bookingRepository;
+    private final BookingContentionMetrics contentionMetrics;
+    private final BookingEventBus bookingEventBus;
+    private final AuditLog auditLog;
+    private final ItemSummaryUpdater itemSummaryUpdater;
 
     @Override
     @Transactional
     public BookingDtoOut createBooking(Long userId, BookingDtoIn bookingDtoIn) {
         User user = findUserById(userId);
-        Item item = findItemById(bookingDtoIn.getItemId());
-        if (!item.getAvailable()) {
-            throw new BookingValidationException("Вещь не достпуна для бронирования");
-        }
-        if (item.getOwner().getId().equals(userId)) {
-            throw new NotFoundException("Нельзя забронировать собственную вещь");
-        }
+        Item item = lockItemById(bookingDtoIn.getItemId(), "create");
+        checkItemCanBeBooked(item, userId);
+        checkNoApprovedOverlap(item.getId(), bookingDtoIn.getStart(), bookingDtoIn.getEnd(), null);
         Booking booking = BookingMapper.toBooking(bookingDtoIn, user, item);
         bookingRepository.save(booking);
+        itemSummaryUpdater.bookingsChanged(List.of(item.getId()));
+        recordCreated(userId, booking);
         return BookingMapper.toBookingDtoOut(booking);
     }
 
+    @Override
+    @Transactional
+    public List<BookingBatchResultDto> createBookings(Long userId, List<BookingDtoIn> bookingDtoIns) {
+        User user = findUserById(userId);
+        Set<Long> itemIds = bookingDtoIns.stream()
+                .filter(Objects::nonNull)
+                .map(BookingDtoIn::getItemId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        // все вещи пакета вместе с владельцами загружаются одним запросом
+        Map<Long, Item> items = itemIds.isEmpty() ? Map.of() : itemRepository.findAllWithOwnerByIdIn(itemIds).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        if (!items.isEmpty()) {
+            contentionMetrics.recordLockWait("batch", () -> itemRepository.lockAllByIdIn(items.keySet()));
+        }
+
+        BookingBatchResultDto[] results = new BookingBatchResultDto[bookingDtoIns.size()];
+        List<Integer> accepted = new ArrayList<>();
+        List<Booking> bookings = new ArrayList<>();
+        for (int i = 0; i < bookingDtoIns.size(); i++) {
+            BookingDtoIn bookingDtoIn = bookingDtoIns.get(i);
+            try {
+                if (bookingDtoIn == null) {
+                    throw new BookingValidationException("Бронирование не задано");
+                }
+                Item item = bookingDtoIn.getItemId() == null ? null : items.get(bookingDtoIn.getItemId());
+                if (item == null) {
+                    throw new NotFoundException("Вещь не найдена");
+                }
+                checkBookingTime(bookingDtoIn.getStart(), bookingDtoIn.getEnd());
+                checkItemCanBeBooked(item, userId);
+                checkNoApprovedOverlap(item.getId(), bookingDtoIn.getStart(), bookingDtoIn.getEnd(), null);
+                bookings.add(BookingMapper.toBooking(bookingDtoIn, user, item));
+                accepted.add(i);
+            } catch (NotFoundException e) {
+                results[i] = rejected(i, HttpStatus.NOT_FOUND, e.getMessage());
+            } catch (BookingValidationException e) {
+                results[i] = rejected(i, HttpStatus.BAD_REQUEST, e.getMessage());
+            }
+        }
+
+        bookingRepository.saveAll(bookings);
+        itemSummaryUpdater.bookingsChanged(bookings.stream()
+                .map(booking -> booking.getItem().getId())
+                .collect(Collectors.toSet()));
+        bookings.forEach(booking -> recordCreated(userId, booking));
+        for (int i = 0; i < bookings.size(); i++) {
+            int index = accepted.get(i);
+            results[index] = BookingBatchResultDto.builder()
+                    .index(index)
+                    .status(HttpStatus.OK.value())
+                    .booking(BookingMapper.toBookingDtoOut(bookings.get(i)))
+                    .build();
+        }
+        log.debug("Пользователь с id={} создал {} из {} бронирований пакетом", userId, bookings.size(),
+                bookingDtoIns.size());
+        return List.of(results);
+    }
+
     @Override
     @Transactional
     public BookingDtoOut approveBooking(Long bookingId, Long ownerId, Boolean isApproved) {
@@ -63,17 +134,31 @@ public class BookingServiceImpl implements BookingService {
             throw new NotFoundException(String.format("Пользователь с id=%d не является владельцем вещи " +
                     " с бронированием id=%d", ownerId, bookingId));
         }
+        if (isApproved) {
+            lockItemById(booking.getItem().getId(), "approve");
+            checkNoApprovedOverlap(booking.getItem().getId(), booking.getStart(), booking.getEnd(), bookingId);
+        }
         booking.setStatus(isApproved ? BookingStatus.APPROVED : BookingStatus.REJECTED);
-        bookingRepository.save(booking);
-        log.info("Пользователь с id={} подтвердил бронирование вещи с id={}", ownerId, bookingId);
+        try {
+            // версия проверяется при записи: из двух параллельных решений по одной брони проходит одно
+            bookingRepository.saveAndFlush(booking);
+        } catch (ObjectOptimisticLockingFailureException e) {
+            contentionMetrics.conflict();
+            throw new ConflictException(String.format("Бронирование с id=%d было изменено параллельным запросом",
+                    bookingId));
+        }
+        itemSummaryUpdater.bookingsChanged(List.of(booking.getItem().getId()));
+        bookingEventBus.publish(booking);
+        auditLog.record(isApproved ? AuditEventType.BOOKING_APPROVED : AuditEventType.BOOKING_REJECTED, ownerId,
+                "bookingId", bookingId, "itemId", booking.getItem().getId());
         return BookingMapper.toBookingDtoOut(booking);
     }
 
     @Override
     public BookingDtoOut getBooking(Long bookingId, Long userId) {
-        User user = findUserById(userId);
+        findUserById(userId);
         Booking booking = findBookingById(bookingId);
-        if (!booking.getBooker().equals(user) && !booking.getItem().getOwner().equals(user)) {
+        if (!booking.getBooker().getId().equals(userId) && !booking.getItem().getOwner().getId().equals(userId)) {
             throw new AccessException("Просмотр информации о бронировании доступен только владельцу вещи или " +
                     "владельцу брони");
         }
@@ -83,32 +168,119 @@ public class BookingServiceImpl implements BookingService {
     @Override
     public Collection<BookingDtoOut> getAllBookingsByUser(Long userId, String state, Integer from, Integer size) {
         StateOfBookingRequest stateIn = getState(state);
-        User user = findUserById(userId);
-        PageRequest page = PageRequest.of(from / size, size, Sort.by("start").descending());
-        List<Booking> userBookings = bookingRepository.findByBooker(user, page);
-        log.info("Список всех бронирований со статусом {} пользователя с id={} успешно получен", state, userId);
-        return getBookingsByState(userBookings, stateIn)
-                .stream().map(BookingMapper::toBookingDtoOut).collect(Collectors.toList());
+        findUserById(userId);
+        List<BookingDtoOut> userBookings = bookingRepository.findBookerBookings(userId, stateIn,
+                PageRequest.of(from / size, size));
+        log.debug("Список всех бронирований со статусом {} пользователя с id={} успешно получен", state, userId);
+        return userBookings;
     }
 
     @Override
     public Collection<BookingDtoOut> getBookingsForUserItems(Long userId, String state, Integer from, Integer size) {
         StateOfBookingRequest stateIn = getState(state);
-        User user = findUserById(userId);
-        PageRequest page = PageRequest.of(from / size, size, Sort.by("start").descending());
-        List<Booking> userBookings = bookingRepository.findByItemOwner(user, page);
-        log.info("Список бронирований со статусом {} для вещей пользователя с id={} успешно получен", state, userId);
-        return getBookingsByState(userBookings, stateIn)
-                .stream().map(BookingMapper::toBookingDtoOut).collect(Collectors.toList());
+        findUserById(userId);
+        List<BookingDtoOut> userBookings = bookingRepository.findOwnerBookings(userId, stateIn,
+                PageRequest.of(from / size, size));
+        log.debug("Список бронирований со статусом {} для вещей пользователя с id={} успешно получен", state, userId);
+        return userBookings;
+    }
+
+    @Override
+    public CursorPage<BookingDtoOut> getAllBookingsByUserAfter(Long userId, String state, String after,
+                                                               Integer size) {
+        StateOfBookingRequest stateIn = getState(state);
+        findUserById(userId);
+        Cursor cursor = Cursor.decode(after);
+        List<BookingDtoOut> bookings = bookingRepository.findBookerBookingsAfter(userId, stateIn,
+                cursor == null ? null : cursor.key(LocalDateTime::parse), cursor == null ? null : cursor.getId(),
+                size + 1);
+        log.debug("Страница бронирований со статусом {} пользователя с id={} успешно получена", state, userId);
+        return toCursorPage(bookings, size);
+    }
+
+    @Override
+    public CursorPage<BookingDtoOut> getBookingsForUserItemsAfter(Long userId, String state, String after,
+                                                                  Integer size) {
+        StateOfBookingRequest stateIn = getState(state);
+        findUserById(userId);
+        Cursor cursor = Cursor.decode(after);
+        List<BookingDtoOut> bookings = bookingRepository.findOwnerBookingsAfter(userId, stateIn,
+                cursor == null ? null : cursor.key(LocalDateTime::parse), cursor == null ? null : cursor.getId(),
+                size + 1);
+        log.debug("Страница бронирований со статусом {} вещей пользователя с id={} успешно получена", state, userId);
+        return toCursorPage(bookings, size);
+    }
+
+    @Override
+    public String getAllBookingsByUserVersion(Long userId, String state, String after) {
+        StateOfBookingRequest stateIn = getState(state);
+        findUserById(userId);
+        Cursor cursor = Cursor.decode(after);
+        return bookingRepository.findBookerBookingsVersion(userId, stateIn,
+                cursor == null ? null : cursor.key(LocalDateTime::parse), cursor == null ? null : cursor.getId())
+                .value();
+    }
+
+    @Override
+    public String getBookingsForUserItemsVersion(Long userId, String state, String after) {
+        StateOfBookingRequest stateIn = getState(state);
+        findUserById(userId);
+        Cursor cursor = Cursor.decode(after);
+        return bookingRepository.findOwnerBookingsVersion(userId, stateIn,
+                cursor == null ? null : cursor.key(LocalDateTime::parse), cursor == null ? null : cursor.getId())
+                .value();
+    }
+
+    private static CursorPage<BookingDtoOut> toCursorPage(List<BookingDtoOut> bookings, int size) {
+        return CursorPage.of(bookings, size, booking -> Cursor.of(booking.getId(), booking.getStart()));
+    }
+
+    private void recordCreated(Long userId, Booking booking) {
+        auditLog.record(AuditEventType.BOOKING_CREATED, userId, "bookingId", booking.getId(),
+                "itemId", booking.getItem().getId());
+    }
+
+    private static void checkItemCanBeBooked(Item item, Long userId) {
+        if (!item.getAvailable()) {
+            throw new BookingValidationException("Вещь не достпуна для бронирования");
+        }
+        if (item.getOwner().getId().equals(userId)) {
+            throw new NotFoundException("Нельзя забронировать собственную вещь");
+        }
+    }
+
+    // шлюз проверяет время одиночного бронирования, записи пакета проверяются здесь по одной
+    private static void checkBookingTime(LocalDateTime start, LocalDateTime end) {
+        if (start == null || end == null) {
+            throw new BookingValidationException("Время начала и окончания бронирования должно быть задано");
+        }
+        if (!end.isAfter(start) || start.isBefore(LocalDateTime.now())) {
+            throw new BookingValidationException("Время бронирования указано некорректно");
+        }
+    }
+
+    private void checkNoApprovedOverlap(Long itemId, LocalDateTime start, LocalDateTime end, Long bookingId) {
+        if (bookingRepository.findEarliestApprovedStartEndingAfter(itemId, start, bookingId == null ? -1L : bookingId)
+                .filter(approvedStart -> approvedStart.isBefore(end)).isPresent()) {
+            throw new BookingValidationException("Вещь уже забронирована на это время");
+        }
+    }
+
+    private static BookingBatchResultDto rejected(int index, HttpStatus status, String error) {
+        return BookingBatchResultDto.builder()
+                .index(index)
+                .status(status.value())
+                .error(error)
+                .build();
     }
 
     private User findUserById(Long userId) {
-        return userRepository.findById(userId)
+        return userCache.findById(userId)
                 .orElseThrow(() -> new NotFoundException("Пользователь не найден"));
     }
 
-    private Item findItemById(Long itemId) {
-        return itemRepository.findById(itemId)
+    private Item lockItemById(Long itemId, String operation) {
+        return contentionMetrics.recordLockWait(operation, () -> itemRepository.findWithLockById(itemId))
                 .orElseThrow(() -> new NotFoundException("Вещь не найдена"));
     }
 
@@ -117,30 +289,6 @@ public class BookingServiceImpl implements BookingService {
                 .orElseThrow(() -> new NotFoundException(String.format("Бронирование с id=%d не найдено", bookingId)));
     }
 
-    private Collection<Booking> getBookingsByState(List<Booking> allBookings, StateOfBookingRequest state) {
-        Stream<Booking> bookingStream = allBookings.stream();
-        LocalDateTime now = LocalDateTime.now();
-        switch (state) {
-            case CURRENT:
-                bookingStream = bookingStream.filter(booking -> booking.getStart().isBefore(now) &&
-                        booking.getEnd().isAfter(now));
-                break;
-            case PAST:
-                bookingStream = bookingStream.filter(booking -> booking.getEnd().isBefore(now));
-                break;
-            case FUTURE:
-                bookingStream = bookingStream.filter(booking -> booking.getStart().isAfter(now));
-                break;
-            case WAITING:
-                bookingStream = bookingStream.filter(booking -> booking.getStatus().equals(BookingStatus.WAITING));
-                break;
-            case REJECTED:
-                bookingStream = bookingStream.filter(booking -> booking.getStatus().equals(BookingStatus.REJECTED));
-                break;
-        }
-        return bookingStream.sorted(Comparator.comparing(Booking::getStart).reversed()).collect(Collectors.toList());
-    }
-
     private StateOfBookingRequest getState(String state) {
         try {
             return StateOfBookingRequest.valueOf(state);
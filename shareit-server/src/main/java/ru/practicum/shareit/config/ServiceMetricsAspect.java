@@ -0,0 +1,44 @@
+package ru.practicum.shareit.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE) // таймер охватывает транзакцию вместе с коммитом
+@RequiredArgsConstructor
+public class ServiceMetricsAspect {
+
+    static final String SERVICE_TIMER = "shareit.service";
+
+    private final MeterRegistry registry;
+
+    @Around("execution(* ru.practicum.shareit.booking.service.BookingService.*(..)) " +
+            "|| execution(* ru.practicum.shareit.item.service.ItemService.*(..)) " +
+            "|| execution(* ru.practicum.shareit.request.service.ItemRequestService.*(..)) " +
+            "|| execution(* ru.practicum.shareit.user.service.UserService.*(..))")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        Timer.Sample sample = Timer.start(registry);
+        String exception = "none";
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            exception = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            sample.stop(Timer.builder(SERVICE_TIMER)
+                    .description("Время выполнения метода сервиса")
+                    .tag("service", joinPoint.getSignature().getDeclaringType().getSimpleName())
+                    .tag("method", joinPoint.getSignature().getName())
+                    .tag("exception", exception)
+                    .register(registry));
+        }
+    }
+}
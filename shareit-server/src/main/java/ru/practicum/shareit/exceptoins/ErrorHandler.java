@@ -29,6 +29,12 @@ public class ErrorHandler {
         return Map.of("Ошибка запроса на бронирование", e.getMessage());
     }
 
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public Map<String, String> handleConflictException(final ConflictException e) {
+        return Map.of("Конфликт изменений", e.getMessage());
+    }
+
     @ExceptionHandler
     @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
     public ErrorResponse handleRequestException(final RequestException e) {
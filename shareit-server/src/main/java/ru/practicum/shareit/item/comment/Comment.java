@@ -3,8 +3,11 @@ package ru.practicum.shareit.item.comment;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.migration.IdSequenceMigration;
 import ru.practicum.shareit.user.model.User;
 
 import javax.persistence.*;
@@ -19,15 +22,21 @@ import java.time.LocalDateTime;
 public class Comment {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "comments_seq")
+    @SequenceGenerator(name = "comments_seq", sequenceName = "comments_seq",
+            allocationSize = IdSequenceMigration.ALLOCATION_SIZE)
     private Long id;
     @Column(columnDefinition = "text")
     private String text;
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "item_id", nullable = false)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
     private Item item;
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "author_id", nullable = false)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
     private User author;
     @Column(name = "created_at")
     private LocalDateTime created;
@@ -2,7 +2,9 @@ package ru.practicum.shareit.item.controller;
 
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import ru.practicum.shareit.exceptoins.BadRequestException;
 import ru.practicum.shareit.exceptoins.CommentRequestException;
 import ru.practicum.shareit.item.dto.CommentDto;
@@ -10,9 +12,11 @@ import ru.practicum.shareit.item.dto.CommentShortDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemUpdateDto;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.pagination.CursorPage;
+import ru.practicum.shareit.pagination.ETags;
 
+import java.util.Collection;
 import java.util.Collections;
-import java.util.List;
 
 
 @AllArgsConstructor
@@ -21,6 +25,8 @@ import java.util.List;
 @Slf4j
 public class ItemController {
 
+    private static final String EMPTY_SEARCH_VERSION = "0-0-0";
+
     private final ItemService itemService;
 
     // Добавление новой вещи пользователем
@@ -49,34 +55,66 @@ public class ItemController {
 
     // Просмотр владельцем списка всех его вещей с указанием названия и описания
     @GetMapping
-    public List<ItemDto> getAllItemsByOwnerId(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                              @RequestParam(value = "from", required = false, defaultValue = "0") final Integer from,
-                                              @RequestParam(value = "size", required = false, defaultValue = "10") final Integer size) {
+    public ResponseEntity<Collection<ItemDto>> getAllItemsByOwnerId(
+            @RequestHeader("X-Sharer-User-Id") Long userId,
+            @RequestParam(value = "from", required = false, defaultValue = "0") final Integer from,
+            @RequestParam(value = "size", required = false, defaultValue = "10") final Integer size,
+            @RequestParam(value = "after", required = false) String after,
+            WebRequest request) {
+        if (after != null) {
+            CursorPage.checkSize(size);
+            log.info("Просмотр владельцем страницы его вещей по курсору: {}", userId);
+            return ETags.okPage(request, itemService.getAllItemsByOwnerIdVersion(userId, after),
+                    () -> itemService.getAllItemsByOwnerIdAfter(userId, after, size));
+        }
         if (from < 0 || size < 0) {
             throw new BadRequestException("Значение from и size не могут быть меньше 0");
         }
         log.info("Просмотр владельцем списка всех его вещей с указанием названия и описания для каждой: {}", userId);
-        return itemService.getAllItemsByOwnerId(userId, from, size);
+        return ETags.ok(request, itemService.getAllItemsByOwnerIdVersion(userId, null),
+                () -> itemService.getAllItemsByOwnerId(userId, from, size));
     }
 
     // Поиск вещи потенциальным арендатором
     @GetMapping("/search")
-    public List<ItemDto> searchItems(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                     @RequestParam("text") String text,
-                                     @RequestParam(value = "from", required = false, defaultValue = "0") final Integer from,
-                                     @RequestParam(value = "size", required = false, defaultValue = "10") final Integer size) {
-
-        if (from < 0 || size < 0) {
+    public ResponseEntity<Collection<ItemDto>> searchItems(
+            @RequestHeader("X-Sharer-User-Id") Long userId,
+            @RequestParam("text") String text,
+            @RequestParam(value = "from", required = false, defaultValue = "0") final Integer from,
+            @RequestParam(value = "size", required = false, defaultValue = "10") final Integer size,
+            @RequestParam(value = "after", required = false) String after,
+            WebRequest request) {
+        if (after != null) {
+            CursorPage.checkSize(size);
+        } else if (from < 0 || size < 0) {
             throw new BadRequestException("Значение from и size не могут быть меньше 0");
         }
         log.info("Пользователь с id={} выполнил поиск вещи {}", userId, text);
         if (text.isBlank()) {
-            return Collections.emptyList();
+            return ETags.ok(request, EMPTY_SEARCH_VERSION, Collections::emptyList);
+        } else if (after != null) {
+            return ETags.okPage(request, itemService.searchItemsVersion(text),
+                    () -> itemService.searchItemsAfter(userId, text, after, size));
         } else {
-            return itemService.searchItems(userId, text, from, size);
+            return ETags.ok(request, itemService.searchItemsVersion(text),
+                    () -> itemService.searchItems(userId, text, from, size));
         }
     }
 
+    // Комментарии к вещи от новых к старым, страницы по курсору
+    @GetMapping("/{itemId}/comments")
+    public ResponseEntity<Collection<CommentShortDto>> getItemComments(
+            @PathVariable("itemId") Long itemId,
+            @RequestHeader("X-Sharer-User-Id") Long userId,
+            @RequestParam(value = "size", required = false, defaultValue = "10") final Integer size,
+            @RequestParam(value = "after", required = false) String after,
+            WebRequest request) {
+        CursorPage.checkSize(size);
+        log.info("Пользователь с id={} просматривает комментарии к вещи с id={}", userId, itemId);
+        return ETags.okPage(request, itemService.getItemCommentsVersion(itemId, after),
+                () -> itemService.getItemComments(itemId, after, size));
+    }
+
     @PostMapping("/{itemId}/comment")
     public CommentDto createItemComment(@RequestBody final CommentShortDto commentShortDto,
                                         @PathVariable final Long itemId,
@@ -1,7 +1,9 @@
 package ru.practicum.shareit.item.dto;
 
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 import ru.practicum.shareit.booking.dto.BookingShortDto;
 
 import javax.persistence.Column;
@@ -9,6 +11,8 @@ import java.util.List;
 
 @Data
 @Builder
+@NoArgsConstructor
+@AllArgsConstructor
 public class ItemDto {
     private Long id; // уникальный идентификатор вещи
     private String name; // краткое название
@@ -16,8 +20,17 @@ public class ItemDto {
     private Boolean available; // статус о доступности вещи для аренды
     private BookingShortDto lastBooking;
     private BookingShortDto nextBooking;
-    private List<CommentShortDto> comments;
+    private List<CommentShortDto> comments; // от старых к новым; в карточке вещи - только последние
+    private Long commentsCount; // всего комментариев, полный список отдает GET /items/{itemId}/comments
     @Column(name = "request_id")
     private Long requestId;
-}
 
+    // для JPQL-выражения select new: вещь без бронирований и комментариев
+    public ItemDto(Long id, String name, String description, Boolean available, Long requestId) {
+        this.id = id;
+        this.name = name;
+        this.description = description;
+        this.available = available;
+        this.requestId = requestId;
+    }
+}
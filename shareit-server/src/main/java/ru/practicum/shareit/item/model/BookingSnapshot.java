@@ -0,0 +1,55 @@
+package ru.practicum.shareit.item.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ru.practicum.shareit.booking.dto.BookingShortDto;
+import ru.practicum.shareit.booking.dto.BookingShortView;
+
+import javax.persistence.Column;
+import javax.persistence.Embeddable;
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@Embeddable
+@AllArgsConstructor
+@NoArgsConstructor
+public class BookingSnapshot {
+
+    @Column(name = "booking_id")
+    private Long id;
+    @Column(name = "booking_start")
+    private LocalDateTime start;
+    @Column(name = "booking_end")
+    private LocalDateTime end;
+    @Column(name = "booker_id")
+    private Long bookerId;
+    @Column(name = "booking_status")
+    private String status;
+
+    public static BookingSnapshot of(BookingShortView booking) {
+        if (booking == null) {
+            return null;
+        }
+        return BookingSnapshot.builder()
+                .id(booking.getId())
+                .start(booking.getStart())
+                .end(booking.getEnd())
+                .bookerId(booking.getBookerId())
+                .status(booking.getStatus())
+                .build();
+    }
+
+    public BookingShortDto toShortBookingDto(Long itemId) {
+        return BookingShortDto.builder()
+                .id(id)
+                .start(start)
+                .end(end)
+                .itemId(itemId)
+                .bookerId(bookerId)
+                .status(status)
+                .build();
+    }
+}
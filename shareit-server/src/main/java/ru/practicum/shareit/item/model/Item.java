@@ -3,11 +3,19 @@ package ru.practicum.shareit.item.model;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.UpdateTimestamp;
+import ru.practicum.shareit.migration.IdSequenceMigration;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.model.User;
 
 import javax.persistence.*;
+import java.time.LocalDateTime;
 
 @Data
 @Builder
@@ -15,10 +23,16 @@ import javax.persistence.*;
 @AllArgsConstructor
 @NoArgsConstructor
 @Table(name = "items")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+// UPDATE только измененных столбцов: правка вещи не затирает счетчик комментариев, увеличенный параллельно
+@DynamicUpdate
 public class Item {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "items_seq")
+    @SequenceGenerator(name = "items_seq", sequenceName = "items_seq",
+            allocationSize = IdSequenceMigration.ALLOCATION_SIZE)
     private Long id; // уникальный идентификатор вещи
     @Column(name = "name")
     private String name; // краткое название
@@ -26,10 +40,20 @@ public class Item {
     private String description; // развернутое описание
     @Column(name = "is_available")
     private Boolean available; // статус о доступности вещи для аренды
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "owner_id", nullable = false)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
     private User owner; //владелец вещи
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "request_id")
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
     private ItemRequest request; // если вещь была создана по запросу др.польз, то в этом поле будет хран.ссылка на запрос
+    @Column(name = "comments_count")
+    private long commentsCount; // число комментариев, увеличивается при добавлении комментария под блокировкой вещи
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    @EqualsAndHashCode.Exclude
+    private LocalDateTime updatedAt; // время последнего изменения
 }
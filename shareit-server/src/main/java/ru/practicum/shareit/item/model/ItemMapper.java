@@ -1,18 +1,16 @@
 package ru.practicum.shareit.item.model;
 
 import lombok.Data;
-import ru.practicum.shareit.booking.model.BookingMapper;
-import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.dto.BookingShortDto;
 import ru.practicum.shareit.user.model.User;
-import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.item.comment.Comment;
 import ru.practicum.shareit.item.comment.CommentMapper;
 import ru.practicum.shareit.item.dto.CommentShortDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
-import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -48,28 +46,45 @@ public class ItemMapper {
                 .description(item.getDescription())
                 .available(item.getAvailable())
                 .comments(commentsShortDto.isEmpty() ? Collections.emptyList() : commentsShortDto)
+                .commentsCount(item.getCommentsCount())
                 .requestId(item.getRequest() != null ? item.getRequest().getId() : null)
                 .build();
     }
 
-    public static ItemDto toItemDto(Item item, List<Comment> itemComments, List<Booking> bookings) {
+    public static ItemDto toItemDto(Item item, List<Comment> itemComments,
+                                    BookingShortDto lastBooking, BookingShortDto nextBooking) {
         ItemDto itemDto = toItemDto(item, itemComments);
-        LocalDateTime now = LocalDateTime.now();
-        for (Booking booking : bookings) {
-            if (booking.getStart().isAfter(now) &&
-                    (booking.getStatus() == BookingStatus.WAITING ||
-                            booking.getStatus() == BookingStatus.APPROVED)) {
-                itemDto.setNextBooking(BookingMapper.toShortBookingDto(booking));
-            }
-            if (booking.getStart().isBefore(now) &&
-                    (booking.getStatus() == BookingStatus.WAITING ||
-                            booking.getStatus() == BookingStatus.APPROVED)) {
-                itemDto.setLastBooking(BookingMapper.toShortBookingDto(booking));
-            }
-        }
+        itemDto.setLastBooking(lastBooking);
+        itemDto.setNextBooking(nextBooking);
         return itemDto;
     }
 
+    public static List<ItemDto> toItemDtos(List<Item> items, List<Comment> comments,
+                                           Map<Long, BookingShortDto> lastBookings,
+                                           Map<Long, BookingShortDto> nextBookings) {
+        Map<Long, List<Comment>> commentsByItem = comments.stream()
+                .collect(Collectors.groupingBy(comment -> comment.getItem().getId()));
+        return items.stream()
+                .map(item -> toItemDto(item,
+                        commentsByItem.getOrDefault(item.getId(), Collections.emptyList()),
+                        lastBookings.get(item.getId()),
+                        nextBookings.get(item.getId())))
+                .collect(Collectors.toList());
+    }
+
+    public static List<ItemDto> toOwnerItemDtos(List<ItemSummary> summaries, List<Comment> comments) {
+        Map<Long, List<Comment>> commentsByItem = comments.stream()
+                .collect(Collectors.groupingBy(comment -> comment.getItem().getId()));
+        return summaries.stream()
+                .map(summary -> toItemDto(summary.getItem(),
+                        commentsByItem.getOrDefault(summary.getItemId(), Collections.emptyList()),
+                        summary.getLastBooking() != null
+                                ? summary.getLastBooking().toShortBookingDto(summary.getItemId()) : null,
+                        summary.getNextBooking() != null
+                                ? summary.getNextBooking().toShortBookingDto(summary.getItemId()) : null))
+                .collect(Collectors.toList());
+    }
+
     public static Set<ItemDto> toItemDtos(Set<Item> items) {
         return items.stream().map(ItemMapper::toItemDto).collect(Collectors.toSet());
     }
@@ -0,0 +1,56 @@
+package ru.practicum.shareit.item.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+// последнее и следующее бронирование вещи, посчитанные заранее для списка владельца
+@Data
+@Builder
+@Entity
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "item_summary")
+public class ItemSummary {
+
+    @Id
+    @Column(name = "item_id")
+    private Long itemId;
+    @Column(name = "owner_id", nullable = false)
+    private Long ownerId;
+    @Embedded
+    @AttributeOverrides({
+            @AttributeOverride(name = "id", column = @Column(name = "last_booking_id")),
+            @AttributeOverride(name = "start", column = @Column(name = "last_booking_start")),
+            @AttributeOverride(name = "end", column = @Column(name = "last_booking_end")),
+            @AttributeOverride(name = "bookerId", column = @Column(name = "last_booker_id")),
+            @AttributeOverride(name = "status", column = @Column(name = "last_booking_status"))
+    })
+    private BookingSnapshot lastBooking;
+    @Embedded
+    @AttributeOverrides({
+            @AttributeOverride(name = "id", column = @Column(name = "next_booking_id")),
+            @AttributeOverride(name = "start", column = @Column(name = "next_booking_start")),
+            @AttributeOverride(name = "end", column = @Column(name = "next_booking_end")),
+            @AttributeOverride(name = "bookerId", column = @Column(name = "next_booker_id")),
+            @AttributeOverride(name = "status", column = @Column(name = "next_booking_status"))
+    })
+    private BookingSnapshot nextBooking;
+    @MapsId
+    @OneToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "item_id")
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private Item item;
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    @EqualsAndHashCode.Exclude
+    private LocalDateTime updatedAt; // время последнего пересчета
+}
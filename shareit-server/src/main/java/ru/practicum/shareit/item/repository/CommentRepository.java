@@ -1,11 +1,42 @@
 package ru.practicum.shareit.item.repository;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
-import ru.practicum.shareit.item.model.Item;
+import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.item.comment.Comment;
+import ru.practicum.shareit.pagination.ListVersion;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
-    List<Comment> findByItemOrderByIdAsc(Item item);
+    // последние комментарии вещи, страница по индексу idx_comments_item
+    @EntityGraph(attributePaths = {"author"})
+    List<Comment> findByItemIdOrderByIdDesc(Long itemId, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"author"})
+    List<Comment> findByItemIdAndIdLessThanOrderByIdDesc(Long itemId, Long id, Pageable pageable);
+
+    // имя автора входит в ответ
+    @Query("select new ru.practicum.shareit.pagination.ListVersion(count(c), sum(c.id), max(a.updatedAt)) " +
+            "from Comment c join c.author a " +
+            "where c.item.id = :itemId and c.id < :id")
+    ListVersion findItemCommentsVersion(Long itemId, Long id);
+
+    @Override
+    @EntityGraph(attributePaths = {"item", "author"})
+    Optional<Comment> findById(Long id);
+
+    // id последних limit комментариев каждой вещи
+    @Query(value = "SELECT c.id FROM (SELECT cm.id, ROW_NUMBER() OVER (PARTITION BY cm.item_id " +
+            "ORDER BY cm.id DESC) AS rn " +
+            "FROM comments cm " +
+            "WHERE cm.item_id IN (:itemIds)) c " +
+            "WHERE c.rn <= :limit", nativeQuery = true)
+    List<Long> findLatestIdsByItemIdIn(Collection<Long> itemIds, int limit);
+
+    @EntityGraph(attributePaths = {"author"})
+    List<Comment> findByIdInOrderByIdAsc(Collection<Long> ids);
 }
@@ -2,21 +2,85 @@ package ru.practicum.shareit.item.repository;
 
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.pagination.ListVersion;
 import ru.practicum.shareit.user.model.User;
 
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
 import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface ItemRepository extends JpaRepository<Item, Long> {
 
+    // строки items сразу собираются в ItemDto; id запроса берется из внешнего ключа, без соединения с requests
+    String SELECT_ITEM_DTO = "select new ru.practicum.shareit.item.dto.ItemDto(" +
+            "i.id, i.name, i.description, i.available, i.request.id) from Item i ";
+
     List<Item> findByOwner(User user, Pageable pageable);
 
-    @Query("select i from Item i " +
-            " where upper(i.name) like upper(concat('%', ?1, '%')) " +
-            " or upper(i.description) like upper(concat('%', ?1, '%'))")
-    List<Item> search(String text, Pageable pageable);
+    @Query(SELECT_ITEM_DTO +
+            " where i.available = true " +
+            " and (upper(i.name) like upper(concat('%', ?1, '%')) " +
+            " or upper(i.description) like upper(concat('%', ?1, '%')))")
+    List<ItemDto> search(String text, Pageable pageable);
+
+    @Query(SELECT_ITEM_DTO +
+            " where i.available = true " +
+            " and (upper(i.name) like upper(concat('%', ?1, '%')) " +
+            " or upper(i.description) like upper(concat('%', ?1, '%'))) " +
+            " and (i.name > ?2 or (i.name = ?2 and i.id > ?3)) " +
+            " order by i.name, i.id")
+    List<ItemDto> searchAfter(String text, String name, Long id, Pageable pageable);
 
+    @Query("select new ru.practicum.shareit.pagination.ListVersion(count(i), sum(i.id), max(i.updatedAt)) " +
+            " from Item i " +
+            " where i.available = true " +
+            " and (upper(i.name) like upper(concat('%', ?1, '%')) " +
+            " or upper(i.description) like upper(concat('%', ?1, '%')))")
+    ListVersion searchVersion(String text);
+
+    // комментарии автора удаляются вместе с ним каскадом в базе, счетчик пересчитывается до удаления
+    @Modifying
+    @Query("update Item i set i.commentsCount = " +
+            " (select count(c) from Comment c where c.item = i and c.author.id <> :authorId), " +
+            " i.updatedAt = current_timestamp " +
+            " where i.id in (select c.item.id from Comment c where c.author.id = :authorId)")
+    int recountCommentsWithoutAuthor(Long authorId);
+
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
     List<Item> findAllByRequestIdIn(Collection<Long> requestIds);
+
+    @Query(SELECT_ITEM_DTO +
+            " where i.id in ?1")
+    List<ItemDto> findItemDtosByIdIn(Collection<Long> ids);
+
+    @Query(SELECT_ITEM_DTO +
+            " where i.request.id in ?1")
+    List<ItemDto> findItemDtosByRequestIdIn(Collection<Long> requestIds);
+
+    @Query("select i from Item i " +
+            " join fetch i.owner " +
+            " left join fetch i.request r " +
+            " left join fetch r.requestor " +
+            " where i.id in ?1")
+    List<Item> findAllWithOwnerByIdIn(Collection<Long> ids);
+
+    /**
+     * Блокирует строку вещи до конца транзакции. Бронирования одной вещи создаются и подтверждаются
+     * по очереди, бронирования разных вещей друг друга не ждут.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<Item> findWithLockById(Long id);
+
+    // блокировки берутся в порядке id, чтобы пакеты с общими вещами не взаимоблокировались
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select i from Item i where i.id in ?1 order by i.id")
+    List<Item> lockAllByIdIn(Collection<Long> ids);
 }
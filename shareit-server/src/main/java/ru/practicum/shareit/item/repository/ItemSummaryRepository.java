@@ -0,0 +1,45 @@
+package ru.practicum.shareit.item.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import ru.practicum.shareit.item.model.ItemSummary;
+import ru.practicum.shareit.pagination.ListVersion;
+
+import javax.persistence.LockModeType;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface ItemSummaryRepository extends JpaRepository<ItemSummary, Long> {
+
+    // следующее бронирование уже началось: поиск по индексу next_booking_start
+    @Query("select s.itemId from ItemSummary s " +
+            " where s.nextBooking.start <= :now " +
+            " order by s.nextBooking.start")
+    List<Long> findStaleItemIds(LocalDateTime now, Pageable pageable);
+
+    @Query("select s from ItemSummary s " +
+            " join fetch s.item " +
+            " where s.ownerId = :ownerId " +
+            " order by s.nextBooking.start desc nulls last, s.itemId")
+    List<ItemSummary> findOwnerPage(Long ownerId, Pageable pageable);
+
+    @Query("select s from ItemSummary s " +
+            " join fetch s.item " +
+            " where s.ownerId = :ownerId and s.itemId > :itemId " +
+            " order by s.itemId")
+    List<ItemSummary> findOwnerPageAfter(Long ownerId, Long itemId, Pageable pageable);
+
+    @Query("select new ru.practicum.shareit.pagination.ListVersion(count(s), sum(s.itemId), " +
+            "max(s.updatedAt), max(i.updatedAt)) from ItemSummary s " +
+            " join s.item i " +
+            " where s.ownerId = :ownerId and s.itemId > :itemId")
+    ListVersion findOwnerPageVersion(Long ownerId, Long itemId);
+
+    // блокировка в порядке id: параллельные пересчеты одной вещи идут по очереди
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s from ItemSummary s where s.itemId in :itemIds order by s.itemId")
+    List<ItemSummary> lockAllByItemIdIn(Collection<Long> itemIds);
+}
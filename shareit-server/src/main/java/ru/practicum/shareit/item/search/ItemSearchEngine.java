@@ -0,0 +1,21 @@
+package ru.practicum.shareit.item.search;
+
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.pagination.Cursor;
+import ru.practicum.shareit.pagination.CursorPage;
+
+import java.util.List;
+
+// реализация выбирается свойством shareit.search.engine
+public interface ItemSearchEngine {
+
+    List<ItemDto> search(String text, int from, int size);
+
+    CursorPage<ItemDto> searchAfter(String text, Cursor after, int size);
+
+    // внутри транзакции изменение применяется после коммита
+    void index(Item item);
+
+    String version(String text);
+}
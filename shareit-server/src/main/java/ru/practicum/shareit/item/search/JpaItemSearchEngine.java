@@ -0,0 +1,46 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.pagination.Cursor;
+import ru.practicum.shareit.pagination.CursorPage;
+
+import java.util.List;
+import java.util.function.Function;
+
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "jpa")
+public class JpaItemSearchEngine implements ItemSearchEngine {
+
+    private final ItemRepository itemRepository;
+
+    @Override
+    public List<ItemDto> search(String text, int from, int size) {
+        return itemRepository.search(text, PageRequest.of(from / size, size, Sort.by("name").ascending()));
+    }
+
+    @Override
+    public CursorPage<ItemDto> searchAfter(String text, Cursor after, int size) {
+        PageRequest page = PageRequest.of(0, size + 1);
+        List<ItemDto> items = after == null
+                ? itemRepository.search(text, page.withSort(Sort.by("name", "id")))
+                : itemRepository.searchAfter(text, after.key(Function.identity()), after.getId(), page);
+        return CursorPage.of(items, size, item -> Cursor.of(item.getId(), item.getName()));
+    }
+
+    @Override
+    public String version(String text) {
+        return itemRepository.searchVersion(text).value();
+    }
+
+    @Override
+    public void index(Item item) {
+    }
+}
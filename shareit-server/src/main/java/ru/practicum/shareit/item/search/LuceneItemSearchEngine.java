@@ -0,0 +1,263 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.CharArraySet;
+import org.apache.lucene.analysis.LowerCaseFilter;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.Tokenizer;
+import org.apache.lucene.analysis.ngram.EdgeNGramTokenFilter;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.analysis.standard.StandardTokenizer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.NumericDocValuesField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.FieldDoc;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.SortField;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort.Direction;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.pagination.Cursor;
+import ru.practicum.shareit.pagination.CursorPage;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// индекс в памяти; слова хранятся со всеми префиксами, поэтому поиск по началу слова - точное совпадение терма
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "lucene", matchIfMissing = true)
+public class LuceneItemSearchEngine implements ItemSearchEngine {
+
+    static final int MAX_PREFIX_LENGTH = 20;
+    private static final int REINDEX_BATCH_SIZE = 1000;
+    private static final float NAME_BOOST = 2.0f;
+    private static final String ID = "id";
+    private static final String ID_SORT = "id_sort";
+    private static final String NAME = "name";
+    private static final String DESCRIPTION = "description";
+    private static final String AVAILABLE = "available";
+    private static final Sort BY_RELEVANCE = new Sort(SortField.FIELD_SCORE, new SortField(ID_SORT, SortField.Type.LONG));
+
+    private final ItemRepository itemRepository;
+    private final Analyzer queryAnalyzer = new StandardAnalyzer(CharArraySet.EMPTY_SET);
+    private final IndexWriter writer;
+    private final SearcherManager searcherManager;
+    private final String instance = UUID.randomUUID().toString();
+
+    public LuceneItemSearchEngine(ItemRepository itemRepository) throws IOException {
+        this.itemRepository = itemRepository;
+        this.writer = new IndexWriter(new ByteBuffersDirectory(), new IndexWriterConfig(new PrefixAnalyzer()));
+        this.searcherManager = new SearcherManager(writer, null);
+    }
+
+    @Override
+    public List<ItemDto> search(String text, int from, int size) {
+        List<String> terms = analyze(text);
+        if (terms.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<FieldDoc> hits = searchHits(toQuery(terms), null, from + size);
+        return loadItems(hits.subList(Math.min(from, hits.size()), hits.size()));
+    }
+
+    @Override
+    public CursorPage<ItemDto> searchAfter(String text, Cursor after, int size) {
+        List<String> terms = analyze(text);
+        if (terms.isEmpty()) {
+            return new CursorPage<>(Collections.emptyList(), null);
+        }
+        // значения полей сортировки последнего результата: релевантность и id
+        Object[] afterFields = after == null ? null : new Object[]{after.key(Float::valueOf), after.getId()};
+        CursorPage<FieldDoc> page = CursorPage.of(searchHits(toQuery(terms), afterFields, size + 1), size,
+                hit -> Cursor.of(idOf(hit), hit.fields[0]));
+        return new CursorPage<>(loadItems(page.getContent()), page.getNextCursor());
+    }
+
+    @Override
+    public void index(Item item) {
+        Document document = toDocument(item);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    write(item.getId(), document);
+                }
+            });
+        } else {
+            write(item.getId(), document);
+        }
+    }
+
+    @Override
+    public String version(String text) {
+        try {
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                // версия читателя начинается заново после перезапуска
+                return "lucene-" + instance + "-" + ((DirectoryReader) searcher.getIndexReader()).getVersion();
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reindex() throws IOException {
+        writer.deleteAll();
+        int indexed = 0;
+        Page<Item> page;
+        PageRequest pageRequest = PageRequest.of(0, REINDEX_BATCH_SIZE, Direction.ASC, "id");
+        do {
+            page = itemRepository.findAll(pageRequest);
+            for (Item item : page) {
+                writer.updateDocument(new Term(ID, item.getId().toString()), toDocument(item));
+            }
+            indexed += page.getNumberOfElements();
+            pageRequest = pageRequest.next();
+        } while (page.hasNext());
+        searcherManager.maybeRefreshBlocking();
+        log.info("Поисковый индекс вещей построен, проиндексировано {} вещей", indexed);
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        searcherManager.close();
+        writer.close();
+    }
+
+    private List<FieldDoc> searchHits(BooleanQuery query, Object[] afterFields, int count) {
+        try {
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                // при равных полях сортировки Lucene сравнивает номера документов, а id уникален
+                FieldDoc after = afterFields == null ? null
+                        : new FieldDoc(searcher.getIndexReader().maxDoc() - 1, Float.NaN, afterFields);
+                TopDocs topDocs = searcher.searchAfter(after, query, count, BY_RELEVANCE);
+                List<FieldDoc> hits = new ArrayList<>(topDocs.scoreDocs.length);
+                for (ScoreDoc scoreDoc : topDocs.scoreDocs) {
+                    hits.add((FieldDoc) scoreDoc);
+                }
+                return hits;
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private List<ItemDto> loadItems(List<FieldDoc> hits) {
+        if (hits.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<Long> ids = hits.stream()
+                .map(LuceneItemSearchEngine::idOf)
+                .collect(Collectors.toList());
+        Map<Long, ItemDto> items = itemRepository.findItemDtosByIdIn(ids).stream()
+                .collect(Collectors.toMap(ItemDto::getId, Function.identity()));
+        return ids.stream()
+                .map(items::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    private static Long idOf(FieldDoc hit) {
+        return (Long) hit.fields[1];
+    }
+
+    private void write(Long itemId, Document document) {
+        try {
+            writer.updateDocument(new Term(ID, itemId.toString()), document);
+            searcherManager.maybeRefreshBlocking();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private BooleanQuery toQuery(List<String> terms) {
+        BooleanQuery.Builder query = new BooleanQuery.Builder();
+        for (String term : terms) {
+            query.add(new BooleanQuery.Builder()
+                    .add(new BoostQuery(new TermQuery(new Term(NAME, term)), NAME_BOOST), BooleanClause.Occur.SHOULD)
+                    .add(new TermQuery(new Term(DESCRIPTION, term)), BooleanClause.Occur.SHOULD)
+                    .build(), BooleanClause.Occur.MUST);
+        }
+        query.add(new TermQuery(new Term(AVAILABLE, Boolean.TRUE.toString())), BooleanClause.Occur.FILTER);
+        return query.build();
+    }
+
+    private List<String> analyze(String text) {
+        List<String> terms = new ArrayList<>();
+        try (TokenStream stream = queryAnalyzer.tokenStream(NAME, text)) {
+            CharTermAttribute term = stream.addAttribute(CharTermAttribute.class);
+            stream.reset();
+            while (stream.incrementToken()) {
+                String value = term.toString();
+                terms.add(value.length() > MAX_PREFIX_LENGTH ? value.substring(0, MAX_PREFIX_LENGTH) : value);
+            }
+            stream.end();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return terms;
+    }
+
+    private static Document toDocument(Item item) {
+        Document document = new Document();
+        document.add(new StringField(ID, item.getId().toString(), Field.Store.NO));
+        document.add(new NumericDocValuesField(ID_SORT, item.getId()));
+        document.add(new TextField(NAME, Objects.toString(item.getName(), ""), Field.Store.NO));
+        document.add(new TextField(DESCRIPTION, Objects.toString(item.getDescription(), ""), Field.Store.NO));
+        document.add(new StringField(AVAILABLE, String.valueOf(Boolean.TRUE.equals(item.getAvailable())),
+                Field.Store.NO));
+        return document;
+    }
+
+    private static final class PrefixAnalyzer extends Analyzer {
+        @Override
+        protected TokenStreamComponents createComponents(String fieldName) {
+            Tokenizer tokenizer = new StandardTokenizer();
+            TokenStream stream = new LowerCaseFilter(tokenizer);
+            stream = new EdgeNGramTokenFilter(stream, 1, MAX_PREFIX_LENGTH, true);
+            return new TokenStreamComponents(tokenizer, stream);
+        }
+    }
+}
@@ -4,6 +4,7 @@ import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.CommentShortDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemUpdateDto;
+import ru.practicum.shareit.pagination.CursorPage;
 
 import java.util.Collection;
 import java.util.List;
@@ -19,9 +20,21 @@ public interface ItemService {
 
     List<ItemDto> searchItems(Long userId, String text, Integer from, Integer size);
 
+    CursorPage<ItemDto> getAllItemsByOwnerIdAfter(Long userId, String after, Integer size);
+
+    CursorPage<ItemDto> searchItemsAfter(Long userId, String text, String after, Integer size);
+
+    String getAllItemsByOwnerIdVersion(Long userId, String after);
+
+    String searchItemsVersion(String text);
+
     Collection<ItemDto> findAll();
 
     CommentDto addNewComment(CommentShortDto commentShortDto, Long itemId, Long userId);
 
     CommentDto getCommentById(Long commentId);
+
+    CursorPage<CommentShortDto> getItemComments(Long itemId, String after, Integer size);
+
+    String getItemCommentsVersion(Long itemId, String after);
 }
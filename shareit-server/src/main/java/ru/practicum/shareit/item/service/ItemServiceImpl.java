@@ -4,10 +4,13 @@ import lombok.Data;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.audit.AuditEventType;
+import ru.practicum.shareit.audit.AuditLog;
+import ru.practicum.shareit.booking.dto.BookingShortDto;
+import ru.practicum.shareit.booking.dto.BookingShortView;
+import ru.practicum.shareit.booking.model.BookingMapper;
 import ru.practicum.shareit.exceptoins.AccessException;
 import ru.practicum.shareit.exceptoins.NotFoundException;
 import ru.practicum.shareit.request.model.ItemRequest;
@@ -23,13 +26,21 @@ import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemUpdateDto;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.model.ItemMapper;
+import ru.practicum.shareit.item.model.ItemSummary;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
-import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.item.repository.ItemSummaryRepository;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.pagination.Cursor;
+import ru.practicum.shareit.pagination.CursorPage;
+import ru.practicum.shareit.user.service.UserCache;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -40,21 +51,27 @@ import java.util.stream.Collectors;
 @Transactional(readOnly = true)
 public class ItemServiceImpl implements ItemService {
 
+    static final int COMMENTS_PREVIEW_SIZE = 10; // комментариев в карточке вещи
+
     private final ItemRepository itemRepository;
-    private final UserRepository userRepository;
+    private final UserCache userCache;
     private final BookingRepository bookingRepository;
     private final CommentRepository commentRepository;
     private final CommentMapper commentMapper;
     private final ItemRequestRepository itemRequestRepository;
+    private final ItemSearchEngine itemSearchEngine;
+    private final AuditLog auditLog;
+    private final ItemSummaryRepository itemSummaryRepository;
+    private final ItemSummaryUpdater itemSummaryUpdater;
 
     @Override
     @Transactional
     public ItemDto updateItem(Long userId, Long itemId, ItemUpdateDto itemDto) {
-        User owner = userRepository.findById(userId)
+        userCache.findById(userId)
                 .orElseThrow(() -> new NotFoundException("User not found"));
         Item updatedItem = itemRepository.findById(itemId)
                 .orElseThrow(() -> new NotFoundException("Item not found"));
-        if (!updatedItem.getOwner().equals(owner)) {
+        if (!updatedItem.getOwner().getId().equals(userId)) {
             throw new AccessException("Только владелец может обновить вещь!");
         }
         if (itemDto.getName() != null) {
@@ -67,13 +84,16 @@ public class ItemServiceImpl implements ItemService {
             updatedItem.setAvailable(itemDto.getAvailable());
         }
         itemRepository.save(updatedItem);
+        itemSearchEngine.index(updatedItem);
+        auditLog.record(AuditEventType.ITEM_UPDATED, userId, "itemId", itemId,
+                "available", updatedItem.getAvailable());
         return ItemMapper.toItemDto(updatedItem);
     }
 
     @Override
     @Transactional
     public ItemDto addItem(Long userId, ItemDto itemDto) {
-        User owner = userRepository.findById(userId)
+        User owner = userCache.findById(userId)
                 .orElseThrow(() -> new NotFoundException("User not found"));
         Item item = ItemMapper.toItem(itemDto, owner);
         if (itemDto.getRequestId() != null) {
@@ -81,7 +101,11 @@ public class ItemServiceImpl implements ItemService {
                     new NotFoundException(String.format("Запрос с id=%d не найден", item.getRequest().getId())));
             item.setRequest(itemRequest);
         }
-        return ItemMapper.toItemDto(itemRepository.save(item));
+        Item savedItem = itemRepository.save(item);
+        itemSearchEngine.index(savedItem);
+        itemSummaryUpdater.itemCreated(savedItem);
+        auditLog.record(AuditEventType.ITEM_CREATED, userId, "itemId", savedItem.getId());
+        return ItemMapper.toItemDto(savedItem);
     }
 
     @Override
@@ -89,50 +113,76 @@ public class ItemServiceImpl implements ItemService {
         Optional<Item> itemOptional = itemRepository.findById(itemId);
         Item item = itemOptional.orElseThrow(() -> new NotFoundException(String.format("Вещь с id=%d не найдена",
                 itemId)));
-        List<Comment> comments = commentRepository.findByItemOrderByIdAsc(item);
-        List<Booking> bookings = bookingRepository.findByItem(item);
+        List<Comment> comments = new ArrayList<>(commentRepository.findByItemIdOrderByIdDesc(itemId,
+                PageRequest.of(0, COMMENTS_PREVIEW_SIZE)));
+        Collections.reverse(comments);
         if (item.getOwner().getId().equals(userId)) {
-            return ItemMapper.toItemDto(item, comments, bookings);
+            LocalDateTime now = LocalDateTime.now();
+            List<Long> itemIds = List.of(itemId);
+            return ItemMapper.toItemDto(item, comments,
+                    bookingRepository.findLastBookings(itemIds, now).stream().findFirst()
+                            .map(BookingMapper::toShortBookingDto).orElse(null),
+                    bookingRepository.findNextBookings(itemIds, now).stream().findFirst()
+                            .map(BookingMapper::toShortBookingDto).orElse(null));
         }
         return ItemMapper.toItemDto(item, comments);
     }
 
     @Override
     public List<ItemDto> getAllItemsByOwnerId(Long userId, Integer from, Integer size) {
-        User owner = userRepository.findById(userId)
+        userCache.findById(userId)
                 .orElseThrow(() -> new NotFoundException("User not found"));
-        PageRequest pageRequest = PageRequest.of(from / size, size);
-        List<Item> userItems = itemRepository.findByOwner(owner, pageRequest);
-        return userItems.stream().map(item ->
-                        ItemMapper.toItemDto(item, commentRepository.findByItemOrderByIdAsc(item),
-                                bookingRepository.findByItem(item)))
-                .sorted(this::compareBookingDates).collect(Collectors.toList());
+        // по убыванию начала следующего бронирования, вещи без него - в конце
+        return toItemDtosWithComments(itemSummaryRepository.findOwnerPage(userId, PageRequest.of(from / size, size)));
     }
 
     @Override
     public Collection<ItemDto> findAll() {
-        return itemRepository.findAll()
-                .stream()
-                .map(item -> ItemMapper.toItemDto(item, commentRepository.findByItemOrderByIdAsc(item),
-                        bookingRepository.findByItem(item)))
-                .collect(Collectors.toList());
+        return toItemDtosWithCommentsAndBookings(itemRepository.findAll());
     }
 
     @Override
     public List<ItemDto> searchItems(Long userId, String text, Integer from, Integer size) {
-        PageRequest pageRequest = PageRequest.of(from / size, size, Sort.by("name").ascending());
-        return itemRepository.search(text, pageRequest).stream()
-                .filter(item -> item.getAvailable().equals(true))
-                .map(ItemMapper::toItemDto)
-                .collect(Collectors.toList());
+        return itemSearchEngine.search(text, from, size);
+    }
+
+    @Override
+    public CursorPage<ItemDto> getAllItemsByOwnerIdAfter(Long userId, String after, Integer size) {
+        userCache.findById(userId)
+                .orElseThrow(() -> new NotFoundException("User not found"));
+        Cursor cursor = Cursor.decode(after);
+        // в режиме курсора вещи отдаются по возрастанию id: сортировка по датам бронирований не дает стабильного ключа
+        List<ItemSummary> summaries = itemSummaryRepository.findOwnerPageAfter(userId,
+                cursor == null ? 0L : cursor.getId(), PageRequest.of(0, size + 1));
+        CursorPage<ItemSummary> page = CursorPage.of(summaries, size, summary -> Cursor.of(summary.getItemId()));
+        return new CursorPage<>(toItemDtosWithComments(page.getContent()), page.getNextCursor());
+    }
+
+    @Override
+    public String getAllItemsByOwnerIdVersion(Long userId, String after) {
+        userCache.findById(userId)
+                .orElseThrow(() -> new NotFoundException("User not found"));
+        Cursor cursor = Cursor.decode(after);
+        return itemSummaryRepository.findOwnerPageVersion(userId, cursor == null ? 0L : cursor.getId()).value();
+    }
+
+    @Override
+    public String searchItemsVersion(String text) {
+        return itemSearchEngine.version(text);
+    }
+
+    @Override
+    public CursorPage<ItemDto> searchItemsAfter(Long userId, String text, String after, Integer size) {
+        return itemSearchEngine.searchAfter(text, Cursor.decode(after), size);
     }
 
     @Override
     @Transactional
     public CommentDto addNewComment(CommentShortDto commentDto, Long itemId, Long userId) {
-        Item item = itemRepository.findById(itemId).orElseThrow(() ->
+        // блокировка вещи: параллельные комментарии увеличивают счетчик по очереди
+        Item item = itemRepository.findWithLockById(itemId).orElseThrow(() ->
                 new NotFoundException(String.format("Вещь с id=%d не найдена", itemId)));
-        User user = userRepository.findById(userId).orElseThrow(() ->
+        User user = userCache.findById(userId).orElseThrow(() ->
                 new NotFoundException(String.format("Пользователь с id=%d не найден", userId)));
         Comment comment = commentMapper.toComment(commentDto, user, item);
         if (!bookingRepository.existsBookingByItemAndBookerAndStatusNotAndStart(comment.getItem(),
@@ -141,9 +191,11 @@ public class ItemServiceImpl implements ItemService {
                     "или аренда еще не началась");
         }
         comment.setCreated(LocalDateTime.now());
-        log.info("Пользователь id={} добавил комментарий id={} к вещи id={}",
-                comment.getAuthor().getId(), comment.getId(), comment.getItem().getId());
-        return CommentMapper.toCommentDto(commentRepository.save(comment));
+        Comment savedComment = commentRepository.save(comment);
+        item.setCommentsCount(item.getCommentsCount() + 1);
+        auditLog.record(AuditEventType.COMMENT_ADDED, userId, "itemId", itemId,
+                "commentId", savedComment.getId());
+        return CommentMapper.toCommentDto(savedComment);
     }
 
     @Override
@@ -152,10 +204,58 @@ public class ItemServiceImpl implements ItemService {
                 new NotFoundException(String.format("Комментарий с id=%d не найден", commentId))));
     }
 
-    private int compareBookingDates(ItemDto itemDto1, ItemDto itemDto2) {
-        if (itemDto1.getNextBooking() == null && itemDto2.getNextBooking() == null) return 0;
-        if (itemDto1.getNextBooking() == null) return 1;
-        if (itemDto2.getNextBooking() == null) return -1;
-        return -itemDto1.getNextBooking().getStart().compareTo(itemDto2.getNextBooking().getStart());
+    @Override
+    public CursorPage<CommentShortDto> getItemComments(Long itemId, String after, Integer size) {
+        if (!itemRepository.existsById(itemId)) {
+            throw new NotFoundException(String.format("Вещь с id=%d не найдена", itemId));
+        }
+        Cursor cursor = Cursor.decode(after);
+        PageRequest page = PageRequest.of(0, size + 1);
+        // от новых к старым; курсор - id последнего отданного комментария
+        List<Comment> comments = cursor == null
+                ? commentRepository.findByItemIdOrderByIdDesc(itemId, page)
+                : commentRepository.findByItemIdAndIdLessThanOrderByIdDesc(itemId, cursor.getId(), page);
+        return CursorPage.of(comments, size, comment -> Cursor.of(comment.getId()))
+                .map(CommentMapper::toCommentShortDto);
+    }
+
+    @Override
+    public String getItemCommentsVersion(Long itemId, String after) {
+        if (!itemRepository.existsById(itemId)) {
+            throw new NotFoundException(String.format("Вещь с id=%d не найдена", itemId));
+        }
+        Cursor cursor = Cursor.decode(after);
+        return commentRepository.findItemCommentsVersion(itemId, cursor == null ? Long.MAX_VALUE : cursor.getId())
+                .value();
+    }
+
+    private List<ItemDto> toItemDtosWithCommentsAndBookings(List<Item> items) {
+        if (items.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<Long> itemIds = items.stream().map(Item::getId).collect(Collectors.toList());
+        LocalDateTime now = LocalDateTime.now();
+        return ItemMapper.toItemDtos(items, latestComments(itemIds),
+                toShortBookingDtosByItem(bookingRepository.findLastBookings(itemIds, now)),
+                toShortBookingDtosByItem(bookingRepository.findNextBookings(itemIds, now)));
+    }
+
+    private List<ItemDto> toItemDtosWithComments(List<ItemSummary> summaries) {
+        if (summaries.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<Long> itemIds = summaries.stream().map(ItemSummary::getItemId).collect(Collectors.toList());
+        return ItemMapper.toOwnerItemDtos(summaries, latestComments(itemIds));
+    }
+
+    // в списках, как и в карточке вещи, только последние комментарии; общее число - в commentsCount
+    private List<Comment> latestComments(List<Long> itemIds) {
+        List<Long> commentIds = commentRepository.findLatestIdsByItemIdIn(itemIds, COMMENTS_PREVIEW_SIZE);
+        return commentIds.isEmpty() ? Collections.emptyList() : commentRepository.findByIdInOrderByIdAsc(commentIds);
+    }
+
+    private Map<Long, BookingShortDto> toShortBookingDtosByItem(List<BookingShortView> bookings) {
+        return bookings.stream()
+                .collect(Collectors.toMap(BookingShortView::getItemId, BookingMapper::toShortBookingDto));
     }
 }
@@ -0,0 +1,64 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+@Component
+public class ItemSummaryRefresher {
+
+    static final int BATCH_SIZE = 500;
+
+    private final ItemSummaryUpdater itemSummaryUpdater;
+    private final ScheduledExecutorService refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "item-summary-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public ItemSummaryRefresher(ItemSummaryUpdater itemSummaryUpdater,
+                                @Value("${shareit.item-summary.refresh-interval:1m}") Duration interval) {
+        this.itemSummaryUpdater = itemSummaryUpdater;
+        if (!interval.isZero()) {
+            refresher.scheduleWithFixedDelay(this::refreshSafely, interval.toMillis(), interval.toMillis(),
+                    TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refresher.shutdownNow();
+    }
+
+    // каждый пакет в своей транзакции
+    int refresh() {
+        LocalDateTime now = LocalDateTime.now();
+        int refreshed = 0;
+        int batch;
+        do {
+            batch = itemSummaryUpdater.refreshStale(now, BATCH_SIZE);
+            refreshed += batch;
+        } while (batch == BATCH_SIZE);
+        return refreshed;
+    }
+
+    private void refreshSafely() {
+        try {
+            int refreshed = refresh();
+            if (refreshed > 0) {
+                log.debug("Пересчитано {} сводок вещей", refreshed);
+            }
+        } catch (RuntimeException e) {
+            // исключение отменило бы следующие запуски
+            log.warn("Не удалось пересчитать сводки вещей", e);
+        }
+    }
+}
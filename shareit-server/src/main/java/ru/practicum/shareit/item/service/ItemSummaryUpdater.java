@@ -0,0 +1,77 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingShortView;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.BookingSnapshot;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemSummary;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.repository.ItemSummaryRepository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Component
+@Transactional
+@RequiredArgsConstructor
+public class ItemSummaryUpdater {
+
+    private final ItemSummaryRepository itemSummaryRepository;
+    private final ItemRepository itemRepository;
+    private final BookingRepository bookingRepository;
+
+    public void itemCreated(Item item) {
+        itemSummaryRepository.save(toSummary(item));
+    }
+
+    public void bookingsChanged(Collection<Long> itemIds) {
+        if (itemIds.isEmpty()) {
+            return;
+        }
+        Map<Long, ItemSummary> summaries = itemSummaryRepository.lockAllByItemIdIn(itemIds).stream()
+                .collect(Collectors.toMap(ItemSummary::getItemId, Function.identity()));
+        if (summaries.size() < Set.copyOf(itemIds).size()) {
+            // вещи без сводки: записаны в базу в обход сервиса
+            for (Item item : itemRepository.findAllById(itemIds)) {
+                if (!summaries.containsKey(item.getId())) {
+                    summaries.put(item.getId(), itemSummaryRepository.save(toSummary(item)));
+                }
+            }
+        }
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, BookingShortView> lastBookings = byItem(bookingRepository.findLastBookings(summaries.keySet(), now));
+        Map<Long, BookingShortView> nextBookings = byItem(bookingRepository.findNextBookings(summaries.keySet(), now));
+        summaries.values().forEach(summary -> {
+            summary.setLastBooking(BookingSnapshot.of(lastBookings.get(summary.getItemId())));
+            summary.setNextBooking(BookingSnapshot.of(nextBookings.get(summary.getItemId())));
+        });
+    }
+
+    // начавшееся следующее бронирование становится последним
+    public int refreshStale(LocalDateTime now, int limit) {
+        List<Long> staleItemIds = itemSummaryRepository.findStaleItemIds(now, PageRequest.of(0, limit));
+        bookingsChanged(staleItemIds);
+        return staleItemIds.size();
+    }
+
+    // id берется из вещи (@MapsId), поэтому save() выполняет persist
+    private static ItemSummary toSummary(Item item) {
+        return ItemSummary.builder()
+                .ownerId(item.getOwner().getId())
+                .item(item)
+                .build();
+    }
+
+    private static Map<Long, BookingShortView> byItem(List<BookingShortView> bookings) {
+        return bookings.stream().collect(Collectors.toMap(BookingShortView::getItemId, Function.identity()));
+    }
+}
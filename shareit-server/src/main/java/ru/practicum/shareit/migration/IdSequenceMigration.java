@@ -0,0 +1,81 @@
+package ru.practicum.shareit.migration;
+
+import org.flywaydb.core.api.MigrationVersion;
+import org.flywaydb.core.api.migration.Context;
+import org.flywaydb.core.api.migration.JavaMigration;
+
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Создает последовательности для ключей таблиц, каждую - после уже занятых в таблице id.
+ * Последовательность таблицы называется &lt;таблица&gt;_seq.
+ * Шаг последовательности равен allocationSize сущности: Hibernate выделяет ключи блоками (pooled-lo)
+ * и не обращается к базе за каждым id, поэтому вставки собираются в пакеты JDBC.
+ * Начальное значение зависит от данных, поэтому миграция написана на Java, а не SQL.
+ */
+public abstract class IdSequenceMigration implements JavaMigration {
+
+    public static final int ALLOCATION_SIZE = 50;
+
+    private final MigrationVersion version;
+    private final List<String> tables;
+
+    protected IdSequenceMigration(String version, String... tables) {
+        this.version = MigrationVersion.fromVersion(version);
+        this.tables = List.of(tables);
+    }
+
+    @Override
+    public MigrationVersion getVersion() {
+        return version;
+    }
+
+    @Override
+    public String getDescription() {
+        return tables.stream()
+                .map(IdSequenceMigration::sequenceOf)
+                .collect(Collectors.joining(", ", "create ", ""));
+    }
+
+    @Override
+    public Integer getChecksum() {
+        return null;
+    }
+
+    @Override
+    public boolean isUndo() {
+        return false;
+    }
+
+    @Override
+    public boolean isBaselineMigration() {
+        return false;
+    }
+
+    @Override
+    public boolean canExecuteInTransaction() {
+        return true;
+    }
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        try (Statement statement = context.getConnection().createStatement()) {
+            for (String table : tables) {
+                long start;
+                try (ResultSet maxId = statement.executeQuery("SELECT COALESCE(MAX(id), 0) + 1 FROM " + table)) {
+                    maxId.next();
+                    start = maxId.getLong(1);
+                }
+                statement.execute("CREATE SEQUENCE " + sequenceOf(table) + " START WITH " + start
+                        + " INCREMENT BY " + ALLOCATION_SIZE);
+            }
+        }
+    }
+
+    private static String sequenceOf(String table) {
+        return table + "_seq";
+    }
+}
@@ -0,0 +1,11 @@
+package ru.practicum.shareit.migration;
+
+/**
+ * Ключи пользователей из последовательности вместо IDENTITY: пакетный импорт вставляет их пакетами JDBC.
+ */
+public class V3UsersSequence extends IdSequenceMigration {
+
+    public V3UsersSequence() {
+        super("3", "users");
+    }
+}
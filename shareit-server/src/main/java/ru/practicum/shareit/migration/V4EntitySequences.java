@@ -0,0 +1,12 @@
+package ru.practicum.shareit.migration;
+
+/**
+ * Ключи запросов, вещей, бронирований и отзывов из последовательностей вместо IDENTITY,
+ * чтобы их вставки тоже собирались в пакеты JDBC.
+ */
+public class V4EntitySequences extends IdSequenceMigration {
+
+    public V4EntitySequences() {
+        super("4", "requests", "items", "bookings", "comments");
+    }
+}
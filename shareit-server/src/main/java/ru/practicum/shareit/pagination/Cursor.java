@@ -0,0 +1,56 @@
+package ru.practicum.shareit.pagination;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import ru.practicum.shareit.exceptoins.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Objects;
+import java.util.function.Function;
+
+// позиция последней отданной записи: ключ сортировки и id, клиенту отдается в Base64
+@Data
+@AllArgsConstructor
+public class Cursor {
+
+    private static final String SEPARATOR = ":";
+
+    private final Long id;
+    private final String key; // null, если сортировка только по id
+
+    public static Cursor of(Long id) {
+        return new Cursor(id, null);
+    }
+
+    public static Cursor of(Long id, Object key) {
+        return new Cursor(id, String.valueOf(key));
+    }
+
+    // пустой токен - первая страница
+    public static Cursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = value.split(SEPARATOR, 2);
+            return new Cursor(Long.valueOf(parts[0]), parts.length > 1 ? parts[1] : null);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Некорректное значение параметра after");
+        }
+    }
+
+    public <T> T key(Function<String, T> parser) {
+        try {
+            return parser.apply(Objects.requireNonNull(key));
+        } catch (RuntimeException e) {
+            throw new BadRequestException("Некорректное значение параметра after");
+        }
+    }
+
+    public String encode() {
+        String value = key == null ? String.valueOf(id) : id + SEPARATOR + key;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,37 @@
+package ru.practicum.shareit.pagination;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.Collection;
+import java.util.function.Supplier;
+
+// версия списка проверяется до загрузки страницы, при совпадении If-None-Match страница не читается
+public final class ETags {
+
+    private ETags() {
+    }
+
+    // слабый ETag: шлюз сжимает ответы
+    public static String of(String version) {
+        return "W/\"" + version + "\"";
+    }
+
+    public static <T> ResponseEntity<Collection<T>> ok(WebRequest request, String version,
+                                                       Supplier<? extends Collection<T>> content) {
+        String eTag = of(version);
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(eTag).body(content.get());
+    }
+
+    public static <T> ResponseEntity<Collection<T>> okPage(WebRequest request, String version,
+                                                           Supplier<CursorPage<T>> page) {
+        String eTag = of(version);
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+        return page.get().toResponseEntity(eTag);
+    }
+}
@@ -0,0 +1,43 @@
+package ru.practicum.shareit.pagination;
+
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+@Getter
+public class ListVersion {
+
+    private final long rows;
+    private final long idSum; // меняется, когда строка со временем входит в выборку или выходит из нее
+    private final LocalDateTime updatedAt; // null для пустого списка
+
+    public ListVersion(Long rows, Long idSum, LocalDateTime updatedAt) {
+        this.rows = rows;
+        this.idSum = idSum == null ? 0 : idSum;
+        this.updatedAt = updatedAt;
+    }
+
+    // max(updated_at) каждой таблицы выборки
+    public ListVersion(Long rows, Long idSum, LocalDateTime updatedAt, LocalDateTime joinedUpdatedAt) {
+        this(rows, idSum, latest(updatedAt, joinedUpdatedAt));
+    }
+
+    public ListVersion(Long rows, Long idSum, LocalDateTime updatedAt, LocalDateTime firstJoinedUpdatedAt,
+                       LocalDateTime secondJoinedUpdatedAt) {
+        this(rows, idSum, latest(latest(updatedAt, firstJoinedUpdatedAt), secondJoinedUpdatedAt));
+    }
+
+    public String value() {
+        long micros = updatedAt == null ? 0
+                : updatedAt.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + updatedAt.getNano() / 1_000;
+        return rows + "-" + idSum + "-" + micros;
+    }
+
+    private static LocalDateTime latest(LocalDateTime first, LocalDateTime second) {
+        if (first == null) {
+            return second;
+        }
+        return second == null || first.isAfter(second) ? first : second;
+    }
+}
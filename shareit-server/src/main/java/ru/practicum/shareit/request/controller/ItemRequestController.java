@@ -1,8 +1,12 @@
 package ru.practicum.shareit.request.controller;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import ru.practicum.shareit.exceptoins.BadRequestException;
+import ru.practicum.shareit.pagination.CursorPage;
+import ru.practicum.shareit.pagination.ETags;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.service.ItemRequestService;
 
@@ -30,13 +34,22 @@ public class ItemRequestController {
     }
 
     @GetMapping("/all")
-    public Collection<ItemRequestDto> getAllRequests(@RequestHeader("X-Sharer-User-Id") final Long userId,
-                                                     @RequestParam(value = "from", defaultValue = "0") final Integer from,
-                                                     @RequestParam(value = "size", defaultValue = "10") final Integer size) {
+    public ResponseEntity<Collection<ItemRequestDto>> getAllRequests(
+            @RequestHeader("X-Sharer-User-Id") final Long userId,
+            @RequestParam(value = "from", defaultValue = "0") final Integer from,
+            @RequestParam(value = "size", defaultValue = "10") final Integer size,
+            @RequestParam(value = "after", required = false) final String after,
+            WebRequest request) {
+        if (after != null) {
+            CursorPage.checkSize(size);
+            return ETags.okPage(request, requestService.getAllRequestsForAllUsersVersion(userId, after),
+                    () -> requestService.getAllRequestsForAllUsersAfter(userId, after, size));
+        }
         if (from < 0) {
             throw new BadRequestException("Некорректно переданный параметр запроса");
         }
-        return requestService.getAllRequestsForAllUsers(userId, from, size);
+        return ETags.ok(request, requestService.getAllRequestsForAllUsersVersion(userId, null),
+                () -> requestService.getAllRequestsForAllUsers(userId, from, size));
     }
 
     @GetMapping("/{requestId}")
@@ -1,7 +1,9 @@
 package ru.practicum.shareit.request.dto;
 
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 import ru.practicum.shareit.item.dto.ItemDto;
 
 import java.time.LocalDateTime;
@@ -9,6 +11,8 @@ import java.util.Set;
 
 @Data
 @Builder
+@NoArgsConstructor
+@AllArgsConstructor
 public class ItemRequestDto {
 
     private Long id; //уникальный идентификатор запроса;
@@ -16,4 +20,12 @@ public class ItemRequestDto {
     private Long requestorId; //пользователь, создавший запрос;
     private LocalDateTime created; //дата и время создания запроса.
     private Set<ItemDto> items;
+
+    // для JPQL-выражения select new: вещи по запросу подставляются отдельной выборкой
+    public ItemRequestDto(Long id, String description, Long requestorId, LocalDateTime created) {
+        this.id = id;
+        this.description = description;
+        this.requestorId = requestorId;
+        this.created = created;
+    }
 }
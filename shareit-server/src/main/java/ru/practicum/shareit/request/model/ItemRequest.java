@@ -3,8 +3,13 @@ package ru.practicum.shareit.request.model;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.migration.IdSequenceMigration;
 import ru.practicum.shareit.user.model.User;
 
 import javax.persistence.*;
@@ -17,15 +22,21 @@ import java.util.Set;
 @NoArgsConstructor
 @AllArgsConstructor
 @Table(name = "requests")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class ItemRequest {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "requests_seq")
+    @SequenceGenerator(name = "requests_seq", sequenceName = "requests_seq",
+            allocationSize = IdSequenceMigration.ALLOCATION_SIZE)
     private Long id; //уникальный идентификатор запроса;
     @Column(name = "description")
     private String description; //текст запроса, содержащий описание требуемой вещи;
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "requestor_id", nullable = false)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
     private User requestor; //пользователь, создавший запрос;
     @Column(name = "created_at")
     private LocalDateTime created; //дата и время создания запроса.
@@ -1,12 +1,52 @@
 package ru.practicum.shareit.request.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import ru.practicum.shareit.pagination.ListVersion;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.model.User;
 
+import javax.persistence.QueryHint;
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
 
+    // строки requests сразу собираются в ItemRequestDto, автор берется из внешнего ключа
+    String SELECT_REQUEST_DTO = "select new ru.practicum.shareit.request.dto.ItemRequestDto(" +
+            "r.id, r.description, r.requestor.id, r.created) from ItemRequest r ";
+
+    // результат попадает в кэш запросов, если включен кэш второго уровня
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
     List<ItemRequest> findAllByRequestorOrderByCreated(User user);
+
+    // чужие запросы от новых к старым, идут по индексу idx_requests_created
+    @Query(SELECT_REQUEST_DTO +
+            " where r.requestor.id <> :requestorId " +
+            " order by r.created desc, r.id desc")
+    List<ItemRequestDto> findPage(Long requestorId, Pageable pageable);
+
+    @Query(SELECT_REQUEST_DTO +
+            " where r.requestor.id <> :requestorId " +
+            " and (r.created < :created or (r.created = :created and r.id < :id)) " +
+            " order by r.created desc, r.id desc")
+    List<ItemRequestDto> findPageAfter(Long requestorId, LocalDateTime created, Long id, Pageable pageable);
+
+    // запросы не изменяются, время изменения берется из вещей-ответов
+    @Query("select new ru.practicum.shareit.pagination.ListVersion(count(r), sum(r.id), " +
+            " (select max(i.updatedAt) from Item i where i.request.requestor.id <> :requestorId)) " +
+            " from ItemRequest r " +
+            " where r.requestor.id <> :requestorId")
+    ListVersion findPageVersion(Long requestorId);
+
+    @Query("select new ru.practicum.shareit.pagination.ListVersion(count(r), sum(r.id), " +
+            " (select max(i.updatedAt) from Item i where i.request.requestor.id <> :requestorId " +
+            " and (i.request.created < :created or (i.request.created = :created and i.request.id < :id)))) " +
+            " from ItemRequest r " +
+            " where r.requestor.id <> :requestorId " +
+            " and (r.created < :created or (r.created = :created and r.id < :id))")
+    ListVersion findPageAfterVersion(Long requestorId, LocalDateTime created, Long id);
 }
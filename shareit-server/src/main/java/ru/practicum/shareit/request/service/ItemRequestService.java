@@ -1,6 +1,7 @@
 package ru.practicum.shareit.request.service;
 
 
+import ru.practicum.shareit.pagination.CursorPage;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 
 import java.util.Collection;
@@ -15,4 +16,8 @@ public interface ItemRequestService {
 
     Collection<ItemRequestDto> getAllRequestsForAllUsers(Long userId, Integer from, Integer size);
 
+    CursorPage<ItemRequestDto> getAllRequestsForAllUsersAfter(Long userId, String after, Integer size);
+
+    String getAllRequestsForAllUsersVersion(Long userId, String after);
+
 }
@@ -3,18 +3,22 @@ package ru.practicum.shareit.request.service;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.audit.AuditEventType;
+import ru.practicum.shareit.audit.AuditLog;
 import ru.practicum.shareit.exceptoins.NotFoundException;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.pagination.Cursor;
+import ru.practicum.shareit.pagination.CursorPage;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.model.ItemRequestMapper;
 import ru.practicum.shareit.user.model.User;
-import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserCache;
 
 import java.time.LocalDateTime;
 import java.util.*;
@@ -29,12 +33,14 @@ import static java.util.stream.Collectors.toSet;
 @RequiredArgsConstructor
 public class ItemRequestServiceImpl implements ItemRequestService {
 
-    private final UserRepository userRepository;
+    private final UserCache userCache;
 
     private final ItemRepository itemRepository;
 
     private final ItemRequestRepository itemRequestRepository;
 
+    private final AuditLog auditLog;
+
     @Override
     @Transactional
     public ItemRequestDto addRequest(ItemRequestDto itemRequestDto, Long userId) {
@@ -43,7 +49,7 @@ public class ItemRequestServiceImpl implements ItemRequestService {
         request.setCreated(LocalDateTime.now());
         request.setRequestor(requestor);
         itemRequestRepository.save(request);
-        log.info("Пользователь с id={} добавил запрос с id={}", requestor.getId(), request.getId());
+        auditLog.record(AuditEventType.REQUEST_CREATED, userId, "requestId", request.getId());
         return ItemRequestMapper.toItemRequestDto(request);
     }
 
@@ -61,24 +67,47 @@ public class ItemRequestServiceImpl implements ItemRequestService {
         ItemRequest request = itemRequestRepository.findById(requestId).orElseThrow(() ->
                 new NotFoundException(String.format("Запрос с id=%d не найден", requestId)));
         fillItemsByRequests(List.of(request));
-        log.info("Запрос с id={} успешно получен пользователем id={}", requestId, userId);
+        log.debug("Запрос с id={} успешно получен пользователем id={}", requestId, userId);
         return ItemRequestMapper.toItemRequestDto(request);
     }
 
     @Override
     public Collection<ItemRequestDto> getAllRequestsForAllUsers(Long userId, Integer from, Integer size) {
-        User requestor = requestorById(userId);
-        PageRequest page = PageRequest.of(from / size, size, Sort.by("created").descending());
-        List<ItemRequest> requests = itemRequestRepository.findAll(page).stream()
-                .filter(request -> !request.getRequestor().equals(requestor))
-                .collect(Collectors.toList());
-        fillItemsByRequests(requests);
-        log.info("Список всех запросов успешно получен пользователем с id={}", userId);
-        return ItemRequestMapper.toItemRequestDtoListItems(requests);
+        requestorById(userId);
+        // свои запросы исключаются в SQL, поэтому страница всегда полная, пока есть чужие запросы
+        List<ItemRequestDto> requests = itemRequestRepository.findPage(userId, PageRequest.of(from / size, size));
+        fillItemDtosByRequests(requests);
+        log.debug("Список всех запросов успешно получен пользователем с id={}", userId);
+        return requests;
+    }
+
+    @Override
+    public CursorPage<ItemRequestDto> getAllRequestsForAllUsersAfter(Long userId, String after, Integer size) {
+        requestorById(userId);
+        Cursor cursor = Cursor.decode(after);
+        PageRequest page = PageRequest.of(0, size + 1);
+        List<ItemRequestDto> requests = cursor == null
+                ? itemRequestRepository.findPage(userId, page)
+                : itemRequestRepository.findPageAfter(userId, cursor.key(LocalDateTime::parse), cursor.getId(), page);
+        CursorPage<ItemRequestDto> requestPage = CursorPage.of(requests, size,
+                request -> Cursor.of(request.getId(), request.getCreated()));
+        fillItemDtosByRequests(requestPage.getContent());
+        log.debug("Страница запросов других пользователей успешно получена пользователем с id={}", userId);
+        return requestPage;
+    }
+
+    @Override
+    public String getAllRequestsForAllUsersVersion(Long userId, String after) {
+        requestorById(userId);
+        Cursor cursor = Cursor.decode(after);
+        return (cursor == null
+                ? itemRequestRepository.findPageVersion(userId)
+                : itemRequestRepository.findPageAfterVersion(userId, cursor.key(LocalDateTime::parse), cursor.getId()))
+                .value();
     }
 
     private User requestorById(Long userId) {
-        return userRepository.findById(userId)
+        return userCache.findById(userId)
                 .orElseThrow(() -> new NotFoundException(String.format("Пользователь с id=%d не найден", userId)));
     }
 
@@ -92,4 +121,17 @@ public class ItemRequestServiceImpl implements ItemRequestService {
         requests.forEach(itemRequest -> itemRequest.setItems(items.getOrDefault(itemRequest.getId(),
                 Collections.emptySet())));
     }
+
+    private void fillItemDtosByRequests(List<ItemRequestDto> requests) {
+        if (requests.isEmpty()) {
+            return;
+        }
+        List<Long> requestIds = requests.stream()
+                .map(ItemRequestDto::getId)
+                .collect(Collectors.toList());
+        Map<Long, Set<ItemDto>> items = itemRepository.findItemDtosByRequestIdIn(requestIds).stream()
+                .collect(groupingBy(ItemDto::getRequestId, toSet()));
+
+        requests.forEach(request -> request.setItems(items.getOrDefault(request.getId(), Collections.emptySet())));
+    }
 }
@@ -1,12 +1,16 @@
 package ru.practicum.shareit.user.controller;
 
 import lombok.AllArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.dto.UserImportResultDto;
 import ru.practicum.shareit.user.dto.UserUpdateDto;
 import ru.practicum.shareit.user.service.UserService;
 
 import javax.xml.bind.ValidationException;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.Collection;
 
 @RestController
@@ -22,6 +26,12 @@ public class UserController {
         return userService.addUser(userDto);
     }
 
+    //Импорт пользователей из NDJSON, по объекту на строку
+    @PostMapping(path = "/bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public UserImportResultDto importUsers(InputStream ndjson) throws IOException {
+        return userService.importUsers(ndjson);
+    }
+
     //Получение всех пользователей
     @GetMapping
     public Collection<UserDto> getUsers() {
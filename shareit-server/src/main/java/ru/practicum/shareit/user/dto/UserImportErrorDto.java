@@ -0,0 +1,15 @@
+package ru.practicum.shareit.user.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Отклоненная строка импорта: 400 - строка не разобрана или без email, 409 - email уже занят.
+ */
+@Data
+@AllArgsConstructor
+public class UserImportErrorDto {
+    private Long line; // номер строки в запросе, с 1
+    private Integer status;
+    private String error;
+}
@@ -0,0 +1,17 @@
+package ru.practicum.shareit.user.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Итог импорта POST /users/bulk: сколько пользователей создано и какие строки отклонены.
+ */
+@Data
+@Builder
+public class UserImportResultDto {
+    private Long lines; // непустые строки запроса
+    private Long created;
+    private List<UserImportErrorDto> errors;
+}
@@ -3,9 +3,15 @@ package ru.practicum.shareit.user.model;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.UpdateTimestamp;
+import ru.practicum.shareit.migration.IdSequenceMigration;
 
 import javax.persistence.*;
+import java.time.LocalDateTime;
 
 @Data
 @Entity
@@ -13,12 +19,24 @@ import javax.persistence.*;
 @AllArgsConstructor
 @NoArgsConstructor
 @Table(name = "users")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class User {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq",
+            allocationSize = IdSequenceMigration.ALLOCATION_SIZE)
     private Long id; // уникальный идентификатор пользователя
     @Column(name = "name")
     private String name; // имя или логин пользователя
     @Column(name = "email", nullable = false, unique = true)
     private String email; // адрес электронной почты (2 пользователя не могут иметь одинаковый email)
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    @EqualsAndHashCode.Exclude
+    private LocalDateTime updatedAt; // время последнего изменения
+
+    public User(Long id, String name, String email) {
+        this(id, name, email, null);
+    }
 }
@@ -1,7 +1,15 @@
 package ru.practicum.shareit.user.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.user.model.User;
 
+import java.util.Collection;
+import java.util.Set;
+
 public interface UserRepository extends JpaRepository<User, Long> {
+
+    // занятые адреса из пакета импорта проверяются одним запросом
+    @Query("select u.email from User u where u.email in :emails")
+    Set<String> findEmailsIn(Collection<String> emails);
 }
@@ -0,0 +1,59 @@
+package ru.practicum.shareit.user.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.Duration;
+import java.util.Optional;
+
+// кэш пользователей для проверки X-Sharer-User-Id, наружу отдаются копии
+@Component
+public class UserCache {
+
+    static final String CACHE_NAME = "users";
+
+    private final UserRepository userRepository;
+    private final Cache<Long, User> cache;
+
+    public UserCache(UserRepository userRepository, MeterRegistry meterRegistry,
+                     @Value("${shareit.cache.users.max-size:10000}") long maxSize,
+                     @Value("${shareit.cache.users.ttl:10m}") Duration ttl) {
+        this.userRepository = userRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    public Optional<User> findById(Long userId) {
+        User user = cache.get(userId, id -> userRepository.findById(id).map(UserCache::copyOf).orElse(null));
+        return Optional.ofNullable(user).map(UserCache::copyOf);
+    }
+
+    public void invalidate(Long userId) {
+        cache.invalidate(userId);
+        // параллельный запрос мог успеть закэшировать старую версию
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.invalidate(userId);
+                }
+            });
+        }
+    }
+
+    private static User copyOf(User user) {
+        return new User(user.getId(), user.getName(), user.getEmail(), user.getUpdatedAt());
+    }
+}
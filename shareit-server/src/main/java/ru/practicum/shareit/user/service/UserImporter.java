@@ -0,0 +1,207 @@
+package ru.practicum.shareit.user.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.audit.AuditEventType;
+import ru.practicum.shareit.audit.AuditLog;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.dto.UserImportErrorDto;
+import ru.practicum.shareit.user.dto.UserImportResultDto;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.model.UserMapper;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import javax.persistence.EntityManager;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Импорт пользователей из NDJSON: по объекту UserDto на строку.
+ * Тело читается построчно и в память целиком не попадает. Строки копятся в пакет размером
+ * shareit.users.import.batch-size; занятые адреса пакета проверяются одним запросом,
+ * а сам пакет сохраняется в отдельной транзакции вставками JDBC-пакетами.
+ * Ошибка в строке не прерывает импорт и попадает в итог с номером строки.
+ */
+@Slf4j
+@Component
+public class UserImporter {
+
+    private static final Pattern EMAIL = Pattern.compile("^[^@\\s]+@[^@\\s]+$");
+    // длины столбцов users.name и users.email
+    private static final int MAX_NAME_LENGTH = 255;
+    private static final int MAX_EMAIL_LENGTH = 512;
+
+    private final ObjectReader reader;
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final AuditLog auditLog;
+    private final int batchSize;
+
+    public UserImporter(ObjectMapper objectMapper, UserRepository userRepository,
+                        PlatformTransactionManager transactionManager, EntityManager entityManager,
+                        AuditLog auditLog, @Value("${shareit.users.import.batch-size:500}") int batchSize) {
+        this.reader = objectMapper.readerFor(UserDto.class);
+        this.userRepository = userRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.entityManager = entityManager;
+        this.auditLog = auditLog;
+        this.batchSize = batchSize;
+    }
+
+    public UserImportResultDto importUsers(InputStream ndjson) throws IOException {
+        Import result = new Import();
+        try (BufferedReader lines = new BufferedReader(new InputStreamReader(ndjson, StandardCharsets.UTF_8))) {
+            long number = 0;
+            String line;
+            while ((line = lines.readLine()) != null) {
+                number++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                result.lines++;
+                UserDto userDto = parse(number, line, result);
+                if (userDto == null) {
+                    continue;
+                }
+                Long previous = result.batch.putIfAbsent(userDto.getEmail(), number);
+                if (previous != null) {
+                    result.reject(number, HttpStatus.CONFLICT, "Email уже указан в строке " + previous);
+                    continue;
+                }
+                result.users.add(userDto);
+                if (result.users.size() == batchSize) {
+                    save(result);
+                }
+            }
+        }
+        save(result);
+        // отказы из проверки занятых адресов добавляются при сохранении пакета, позже ошибок разбора
+        result.errors.sort(Comparator.comparing(UserImportErrorDto::getLine));
+        log.info("Импортировано {} пользователей из {} строк, отклонено {}", result.created, result.lines,
+                result.errors.size());
+        return UserImportResultDto.builder()
+                .lines(result.lines)
+                .created(result.created)
+                .errors(result.errors)
+                .build();
+    }
+
+    private UserDto parse(long number, String line, Import result) {
+        UserDto userDto;
+        try {
+            userDto = reader.readValue(line);
+        } catch (JsonProcessingException e) {
+            result.reject(number, HttpStatus.BAD_REQUEST, "Некорректный JSON: " + e.getOriginalMessage());
+            return null;
+        }
+        if (userDto == null) {
+            result.reject(number, HttpStatus.BAD_REQUEST, "Строка должна содержать объект пользователя");
+            return null;
+        }
+        if (userDto.getName() == null || userDto.getName().isBlank()) {
+            result.reject(number, HttpStatus.BAD_REQUEST, "Имя не может быть пустым");
+            return null;
+        }
+        if (userDto.getName().length() > MAX_NAME_LENGTH) {
+            result.reject(number, HttpStatus.BAD_REQUEST, "Имя длиннее " + MAX_NAME_LENGTH + " символов");
+            return null;
+        }
+        if (userDto.getEmail() == null || userDto.getEmail().length() > MAX_EMAIL_LENGTH
+                || !EMAIL.matcher(userDto.getEmail()).matches()) {
+            result.reject(number, HttpStatus.BAD_REQUEST, "Некорректный email");
+            return null;
+        }
+        userDto.setId(null);
+        return userDto;
+    }
+
+    private void save(Import result) {
+        if (result.users.isEmpty()) {
+            return;
+        }
+        Set<String> taken = userRepository.findEmailsIn(result.batch.keySet());
+        List<UserDto> users = result.users.stream()
+                .filter(userDto -> {
+                    boolean free = !taken.contains(userDto.getEmail());
+                    if (!free) {
+                        result.reject(result.batch.get(userDto.getEmail()), HttpStatus.CONFLICT, "Email уже занят");
+                    }
+                    return free;
+                })
+                .collect(Collectors.toList());
+        try {
+            insert(users);
+            result.created += users.size();
+        } catch (DataIntegrityViolationException e) {
+            // адрес заняли параллельно с проверкой: пакет повторяется по одному пользователю
+            entityManager.clear();
+            for (UserDto userDto : users) {
+                try {
+                    insert(List.of(userDto));
+                    result.created++;
+                } catch (DataIntegrityViolationException violation) {
+                    entityManager.clear();
+                    long line = result.batch.get(userDto.getEmail());
+                    if (userRepository.findEmailsIn(Set.of(userDto.getEmail())).isEmpty()) {
+                        log.warn("Пользователь из строки {} не сохранен", line, violation);
+                        result.reject(line, HttpStatus.BAD_REQUEST, "Пользователь не сохранен: некорректные данные");
+                    } else {
+                        result.reject(line, HttpStatus.CONFLICT, "Email уже занят");
+                    }
+                }
+            }
+        }
+        // при открытом на весь запрос EntityManager сохраненные пользователи иначе копились бы в нем до конца импорта
+        entityManager.clear();
+        result.batch.clear();
+        result.users.clear();
+    }
+
+    private void insert(List<UserDto> users) {
+        if (users.isEmpty()) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            List<User> saved = userRepository.saveAll(users.stream()
+                    .map(UserMapper::toUser)
+                    .collect(Collectors.toList()));
+            userRepository.flush();
+            auditLog.record(AuditEventType.USERS_IMPORTED, null, "created", saved.size());
+        });
+    }
+
+    /**
+     * Состояние одного импорта: текущий пакет и накопленный итог.
+     */
+    private static class Import {
+        private final Map<String, Long> batch = new LinkedHashMap<>(); // email -> номер строки
+        private final List<UserDto> users = new ArrayList<>();
+        private final List<UserImportErrorDto> errors = new ArrayList<>();
+        private long lines;
+        private long created;
+
+        private void reject(long line, HttpStatus status, String error) {
+            errors.add(new UserImportErrorDto(line, status.value(), error));
+        }
+    }
+}
@@ -1,9 +1,12 @@
 package ru.practicum.shareit.user.service;
 
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.dto.UserImportResultDto;
 import ru.practicum.shareit.user.dto.UserUpdateDto;
 
 import javax.xml.bind.ValidationException;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.Collection;
 
 public interface UserService {
@@ -18,4 +21,6 @@ public interface UserService {
 
     Collection<UserDto> getUsers();
 
+    UserImportResultDto importUsers(InputStream ndjson) throws IOException;
+
 }
@@ -4,14 +4,21 @@ import lombok.Data;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.audit.AuditEventType;
+import ru.practicum.shareit.audit.AuditLog;
 import ru.practicum.shareit.exceptoins.NotFoundException;
+import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.dto.UserImportResultDto;
 import ru.practicum.shareit.user.dto.UserUpdateDto;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.model.UserMapper;
 import ru.practicum.shareit.user.repository.UserRepository;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.Collection;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -24,19 +31,23 @@ import java.util.stream.Collectors;
 public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
+    private final ItemRepository itemRepository;
+    private final UserCache userCache;
+    private final AuditLog auditLog;
+    private final UserImporter userImporter;
 
     @Override
     @Transactional
     public UserDto addUser(UserDto userDto) {
-        User user = UserMapper.toUser(userDto);
-        log.info("Пользователь {} добавлен", userDto);
-        return UserMapper.toUserDto(userRepository.save(user));
+        User user = userRepository.save(UserMapper.toUser(userDto));
+        auditLog.record(AuditEventType.USER_CREATED, user.getId());
+        return UserMapper.toUserDto(user);
     }
 
     @Override
     public UserDto getUserById(Long userId) {
         Optional<User> userOptional = userRepository.findById(userId);
-        log.info("Получаем пользователя по ID: {}", userId);
+        log.debug("Получаем пользователя по ID: {}", userId);
         if (userOptional.isPresent()) {
             return UserMapper.toUserDto(userOptional.get());
         } else {
@@ -58,21 +69,32 @@ public class UserServiceImpl implements UserService {
             }
         }
         userRepository.save(user);
+        userCache.invalidate(userId);
+        auditLog.record(AuditEventType.USER_UPDATED, userId);
         return UserMapper.toUserDto(user);
     }
 
     @Override
     @Transactional
     public void deleteUser(Long userId) {
-        log.info("Удаляем пользователя по ID: {}", userId);
+        itemRepository.recountCommentsWithoutAuthor(userId);
         userRepository.deleteById(userId);
+        userCache.invalidate(userId);
+        auditLog.record(AuditEventType.USER_DELETED, userId);
     }
 
     @Override
     public Collection<UserDto> getUsers() {
-        log.info("Получаем всех пользователей");
+        log.debug("Получаем всех пользователей");
         return userRepository.findAll().stream()
                 .map(UserMapper::toUserDto)
                 .collect(Collectors.toList());
     }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public UserImportResultDto importUsers(InputStream ndjson) throws IOException {
+        // каждый пакет сохраняется в своей транзакции, общая транзакция на весь импорт не нужна
+        return userImporter.importUsers(ndjson);
+    }
 }
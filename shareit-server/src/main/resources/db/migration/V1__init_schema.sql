@@ -0,0 +1,61 @@
+CREATE TABLE users (
+  id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+  name VARCHAR(255) NOT NULL,
+  email VARCHAR(512) NOT NULL unique
+);
+
+CREATE TABLE requests (
+  id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+  description VARCHAR(512) NOT NULL,
+  requestor_id BIGINT NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+  created_at TIMESTAMP NOT NULL
+);
+
+CREATE TABLE items (
+  id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+  name VARCHAR(255) NOT NULL,
+  description VARCHAR(512) NOT NULL,
+  is_available BOOLEAN NOT NULL,
+  owner_id BIGINT NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+  request_id BIGINT REFERENCES requests(id) ON DELETE CASCADE
+);
+
+CREATE TABLE bookings (
+  id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+  start_date TIMESTAMP NOT NULL,
+  end_date TIMESTAMP NOT NULL,
+  item_id BIGINT NOT NULL REFERENCES items(id) ON DELETE CASCADE,
+  booker_id BIGINT NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+  status VARCHAR(100) NOT NULL,
+  version BIGINT NOT NULL DEFAULT 0
+);
+
+CREATE INDEX idx_bookings_booker_start ON bookings (booker_id, start_date);
+CREATE INDEX idx_bookings_item_start ON bookings (item_id, start_date);
+CREATE INDEX idx_requests_created ON requests (created_at DESC, id DESC);
+
+CREATE TABLE comments (
+  id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+  text VARCHAR(1000) NOT NULL,
+  item_id BIGINT NOT NULL REFERENCES items(id) ON DELETE CASCADE,
+  author_id BIGINT NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+  created_at TIMESTAMP NOT NULL
+);
+
+-- сводка для списка вещей владельца, поддерживается сервисами при изменении бронирований
+CREATE TABLE item_summary (
+  item_id BIGINT PRIMARY KEY REFERENCES items(id) ON DELETE CASCADE,
+  owner_id BIGINT NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+  last_booking_id BIGINT,
+  last_booking_start TIMESTAMP,
+  last_booking_end TIMESTAMP,
+  last_booker_id BIGINT,
+  last_booking_status VARCHAR(100),
+  next_booking_id BIGINT,
+  next_booking_start TIMESTAMP,
+  next_booking_end TIMESTAMP,
+  next_booker_id BIGINT,
+  next_booking_status VARCHAR(100)
+);
+
+CREATE INDEX idx_item_summary_owner_next ON item_summary (owner_id, next_booking_start DESC NULLS LAST, item_id);
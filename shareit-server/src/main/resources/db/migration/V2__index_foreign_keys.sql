@@ -0,0 +1,15 @@
+-- индексы по внешним ключам, на которых фильтруют запросы репозиториев;
+-- bookings.item_id и bookings.booker_id уже покрыты idx_bookings_item_start и idx_bookings_booker_start
+
+-- вещи владельца по возрастанию id, сводки без строки в item_summary
+CREATE INDEX idx_items_owner ON items (owner_id, id);
+-- ответы на запросы
+CREATE INDEX idx_items_request ON items (request_id);
+-- отзывы вещей по возрастанию id
+CREATE INDEX idx_comments_item ON comments (item_id, id);
+-- удаление пользователя каскадом по отзывам
+CREATE INDEX idx_comments_author ON comments (author_id);
+-- собственные запросы пользователя по дате создания
+CREATE INDEX idx_requests_requestor ON requests (requestor_id, created_at);
+-- список вещей владельца в режиме курсора
+CREATE INDEX idx_item_summary_owner_item ON item_summary (owner_id, item_id);
@@ -0,0 +1,4 @@
+-- число комментариев к вещи: поддерживается при добавлении комментария, чтобы не считать их при каждом чтении
+ALTER TABLE items ADD COLUMN comments_count BIGINT NOT NULL DEFAULT 0;
+
+UPDATE items SET comments_count = (SELECT COUNT(*) FROM comments c WHERE c.item_id = items.id);
@@ -0,0 +1,7 @@
+-- фоновый пересчет ищет сводки с начавшимся следующим бронированием по этому индексу
+CREATE INDEX idx_item_summary_next_start ON item_summary (next_booking_start);
+
+-- сводка создается вместе с вещью; вещам, записанным раньше в обход сервиса, она добавляется здесь
+INSERT INTO item_summary (item_id, owner_id)
+SELECT i.id, i.owner_id FROM items i
+WHERE NOT EXISTS (SELECT 1 FROM item_summary s WHERE s.item_id = i.id);
@@ -0,0 +1,3 @@
+-- проверка пересечения с подтвержденными бронями вещи: диапазон end_date > начала новой брони
+-- отсекает завершившиеся брони, поэтому просматриваются только текущие и будущие
+CREATE INDEX idx_bookings_item_status_end ON bookings (item_id, status, end_date);
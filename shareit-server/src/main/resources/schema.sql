@@ -1,40 +0,0 @@
-drop table if exists users, requests, items, bookings, comments;
-
-CREATE TABLE IF NOT EXISTS users (
-  id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
-  name VARCHAR(255) NOT NULL,
-  email VARCHAR(512) NOT NULL unique
-);
-
-CREATE TABLE IF NOT EXISTS requests (
-  id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
-  description VARCHAR(512) NOT NULL,
-  requestor_id BIGINT NOT NULL REFERENCES users(id) ON DELETE CASCADE,
-  created_at TIMESTAMP NOT NULL
-);
-
-CREATE TABLE IF NOT EXISTS items (
-  id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
-  name VARCHAR(255) NOT NULL,
-  description VARCHAR(512) NOT NULL,
-  is_available BOOLEAN NOT NULL,
-  owner_id BIGINT NOT NULL REFERENCES users(id) ON DELETE CASCADE,
-  request_id BIGINT REFERENCES requests(id) ON DELETE CASCADE
-);
-
-CREATE TABLE IF NOT EXISTS bookings (
-  id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
-  start_date TIMESTAMP NOT NULL,
-  end_date TIMESTAMP NOT NULL,
-  item_id BIGINT NOT NULL REFERENCES items(id) ON DELETE CASCADE,
-  booker_id BIGINT NOT NULL REFERENCES users(id) ON DELETE CASCADE,
-  status VARCHAR(100) NOT NULL
-);
-
-CREATE TABLE IF NOT EXISTS comments (
-  id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
-  text VARCHAR(1000) NOT NULL,
-  item_id BIGINT NOT NULL REFERENCES items(id) ON DELETE CASCADE,
-  author_id BIGINT NOT NULL REFERENCES users(id) ON DELETE CASCADE,
-  created_at TIMESTAMP NOT NULL
-);
\ No newline at end of file
@@ -0,0 +1,202 @@
+package ru.practicum.shareit;
+
+import lombok.SneakyThrows;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultMatcher;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.comment.Comment;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.item.service.ItemSummaryUpdater;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserCache;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Число SQL-запросов каждого списочного эндпоинта не зависит от размера страницы.
+ * Если связь начнет подгружаться по одной строке, тест упадет.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:statement-count",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@AutoConfigureMockMvc
+class IntListStatementCountTest {
+
+    private static final int ITEMS = 5;
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private UserCache userCache;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private ItemSummaryUpdater itemSummaryUpdater;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private CommentRepository commentRepository;
+    @Autowired
+    private ItemRequestRepository itemRequestRepository;
+
+    private User owner;
+    private User booker;
+
+    @BeforeEach
+    void setUp() {
+        owner = userRepository.save(User.builder().name("owner").email("owner@mail.ru").build());
+        booker = userRepository.save(User.builder().name("booker").email("booker@mail.ru").build());
+        List<ItemRequest> requests = new ArrayList<>();
+        for (int i = 0; i < ITEMS; i++) {
+            requests.add(itemRequestRepository.save(ItemRequest.builder().description("Нужна дрель " + i)
+                    .requestor(booker).created(LocalDateTime.now().minusHours(i)).build()));
+        }
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < ITEMS; i++) {
+            ItemDto item = itemService.addItem(owner.getId(), ItemDto.builder().name("Дрель " + i)
+                    .description("Ударная дрель").available(true).requestId(requests.get(i).getId()).build());
+            Booking past = bookingRepository.save(Booking.builder().start(now.minusDays(2)).end(now.minusDays(1))
+                    .item(itemRepository.getReferenceById(item.getId())).booker(booker)
+                    .status(BookingStatus.APPROVED).build());
+            bookingRepository.save(Booking.builder().start(now.plusDays(i + 1)).end(now.plusDays(i + 2))
+                    .item(past.getItem()).booker(booker).status(BookingStatus.WAITING).build());
+            commentRepository.save(Comment.builder().text("Отличная дрель").item(past.getItem()).author(booker)
+                    .created(now).build());
+        }
+        // бронирования сохранены в обход сервиса, сводки вещей пересчитываются явно
+        itemSummaryUpdater.bookingsChanged(itemRepository.findAll().stream().map(Item::getId)
+                .collect(Collectors.toList()));
+        // пользователь из заголовка проверяется через UserCache, его загрузка в подсчет не входит
+        userCache.findById(owner.getId());
+        userCache.findById(booker.getId());
+    }
+
+    @AfterEach
+    void tearDown() {
+        commentRepository.deleteAll();
+        bookingRepository.deleteAll();
+        itemRepository.deleteAll();
+        itemRequestRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void bookingLists_shouldFetchItemAndBookerInOneStatement() {
+        // версия списка для ETag и страница
+        assertEquals(2, statementsOf(get("/bookings").header("X-Sharer-User-Id", booker.getId())
+                .param("size", "20")));
+        assertEquals(2, statementsOf(get("/bookings").header("X-Sharer-User-Id", booker.getId())
+                .param("state", "FUTURE").param("after", "").param("size", "20")));
+        assertEquals(2, statementsOf(get("/bookings/owner").header("X-Sharer-User-Id", owner.getId())
+                .param("size", "20")));
+        assertEquals(2, statementsOf(get("/bookings/owner").header("X-Sharer-User-Id", owner.getId())
+                .param("after", "").param("size", "20")));
+    }
+
+    @Test
+    void itemLists_shouldNotLoadAssociationsPerItem() {
+        // версия списка, страница сводок с вещами, id последних отзывов, отзывы с авторами
+        assertEquals(4, statementsOf(get("/items").header("X-Sharer-User-Id", owner.getId())
+                .param("size", "20")));
+        assertEquals(4, statementsOf(get("/items").header("X-Sharer-User-Id", owner.getId())
+                .param("after", "").param("size", "20")));
+        // id из поискового индекса и вещи по этим id
+        assertEquals(1, statementsOf(get("/items/search").header("X-Sharer-User-Id", booker.getId())
+                .param("text", "дрель").param("size", "20")));
+    }
+
+    @Test
+    void requestLists_shouldNotLoadAssociationsPerRequest() {
+        // запросы пользователя и вещи, созданные по ним
+        assertEquals(2, statementsOf(get("/requests").header("X-Sharer-User-Id", booker.getId())));
+        // версия списка, страница запросов и вещи; неполная страница обходится без запроса количества
+        assertEquals(3, statementsOf(get("/requests/all").header("X-Sharer-User-Id", owner.getId())
+                .param("size", "20")));
+        assertEquals(3, statementsOf(get("/requests/all").header("X-Sharer-User-Id", owner.getId())
+                .param("after", "").param("size", "20")));
+    }
+
+    @Test
+    void conditionalGet_shouldAnswerNotModifiedWithoutLoadingPage() {
+        for (MockHttpServletRequestBuilder request : List.of(
+                get("/bookings").header("X-Sharer-User-Id", booker.getId()).param("size", "20"),
+                get("/bookings/owner").header("X-Sharer-User-Id", owner.getId()).param("after", ""),
+                get("/items").header("X-Sharer-User-Id", owner.getId()).param("size", "20"),
+                get("/requests/all").header("X-Sharer-User-Id", owner.getId()).param("after", ""))) {
+            String eTag = eTagOf(request);
+
+            assertEquals(1, statementsOf(request.header(HttpHeaders.IF_NONE_MATCH, eTag), status().isNotModified()));
+        }
+    }
+
+    @Test
+    @SneakyThrows
+    void eTag_shouldChangeWhenListRowChanges() {
+        String items = eTagOf(get("/items").header("X-Sharer-User-Id", owner.getId()));
+        String bookings = eTagOf(get("/bookings/owner").header("X-Sharer-User-Id", owner.getId()));
+        Item item = itemRepository.findAll().get(0);
+
+        mockMvc.perform(patch("/items/{itemId}", item.getId()).header("X-Sharer-User-Id", owner.getId())
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"name\":\"Перфоратор\"}"))
+                .andExpect(status().isOk());
+
+        assertNotEquals(items, eTagOf(get("/items").header("X-Sharer-User-Id", owner.getId())));
+        // название вещи входит и в ответ со списком бронирований
+        assertNotEquals(bookings, eTagOf(get("/bookings/owner").header("X-Sharer-User-Id", owner.getId())));
+    }
+
+    private long statementsOf(RequestBuilder request) {
+        return statementsOf(request, status().isOk());
+    }
+
+    @SneakyThrows
+    private long statementsOf(RequestBuilder request, ResultMatcher expectedStatus) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        mockMvc.perform(request).andExpect(expectedStatus);
+        return statistics.getPrepareStatementCount();
+    }
+
+    @SneakyThrows
+    private String eTagOf(RequestBuilder request) {
+        return mockMvc.perform(request).andExpect(status().isOk()).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+    }
+}
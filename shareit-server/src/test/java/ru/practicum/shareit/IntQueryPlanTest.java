@@ -0,0 +1,69 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Частые запросы репозиториев ищут строки по индексу, а не полным просмотром таблицы.
+ * План строит H2: используемый индекс и условие поиска по нему записаны в комментарии к таблице.
+ * H2 сам индексирует внешние ключи и может выбрать свой индекс вместо индекса из миграции,
+ * поэтому проверяется поиск по индексу, а не имя индекса; в PostgreSQL эти индексы создают миграции.
+ */
+@SpringBootTest(
+        properties = "spring.datasource.url=jdbc:h2:mem:query-plan",
+        webEnvironment = SpringBootTest.WebEnvironment.NONE)
+class IntQueryPlanTest {
+
+    private static final Pattern INDEX_LOOKUP = Pattern.compile("/\\* PUBLIC\\.\\w+: ");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "SELECT * FROM items WHERE owner_id = 1 ORDER BY id",
+            "SELECT * FROM items WHERE request_id IN (1, 2)",
+            "SELECT * FROM comments WHERE item_id IN (1, 2) ORDER BY id",
+            "SELECT * FROM requests WHERE requestor_id = 1 ORDER BY created_at",
+            "SELECT * FROM bookings WHERE booker_id = 1 ORDER BY start_date DESC",
+            "SELECT * FROM bookings WHERE item_id IN (1, 2) AND start_date > CURRENT_TIMESTAMP",
+            "SELECT * FROM item_summary WHERE owner_id = 1 ORDER BY next_booking_start DESC NULLS LAST, item_id",
+            "SELECT * FROM item_summary WHERE owner_id = 1 AND item_id > 5 ORDER BY item_id",
+            "SELECT item_id FROM item_summary WHERE next_booking_start <= CURRENT_TIMESTAMP "
+                    + "ORDER BY next_booking_start LIMIT 500"
+    })
+    void hotQuery_shouldUseIndex(String sql) {
+        String plan = jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class);
+
+        assertFalse(plan.contains("tableScan"), plan);
+        assertTrue(INDEX_LOOKUP.matcher(plan).find(), plan);
+    }
+
+    @Test
+    void requestsOfOtherUsers_shouldBeReadInIndexOrder() {
+        String plan = jdbcTemplate.queryForObject("EXPLAIN SELECT * FROM requests WHERE requestor_id <> 1 "
+                + "ORDER BY created_at DESC, id DESC LIMIT 10", String.class);
+
+        // условие на неравенство не сужает поиск: индекс нужен, чтобы не сортировать всю таблицу
+        assertTrue(plan.contains("PUBLIC.IDX_REQUESTS_CREATED"), plan);
+        assertTrue(plan.contains("index sorted"), plan);
+    }
+
+    @Test
+    void approvedOverlap_shouldSkipFinishedBookingsByIndexRange() {
+        String plan = jdbcTemplate.queryForObject("EXPLAIN SELECT MIN(start_date) FROM bookings WHERE item_id = 1 "
+                + "AND status = 'APPROVED' AND end_date > CURRENT_TIMESTAMP AND id <> 5", String.class);
+
+        assertTrue(plan.contains("PUBLIC.IDX_BOOKINGS_ITEM_STATUS_END"), plan);
+        assertTrue(plan.contains("END_DATE >"), plan);
+    }
+}
@@ -0,0 +1,54 @@
+package ru.practicum.shareit;
+
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.metrics.AutoConfigureMetrics;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:metrics")
+@AutoConfigureMockMvc
+@AutoConfigureMetrics
+class IntServiceMetricsTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private UserRepository userRepository;
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteAll();
+    }
+
+    @Test
+    @SneakyThrows
+    void prometheus_shouldExposeServiceAndRepositoryTimers() {
+        User user = userRepository.save(User.builder().name("user").email("user@mail.ru").build());
+        mockMvc.perform(get("/users/{userId}", user.getId())).andExpect(status().isOk());
+        mockMvc.perform(get("/users/{userId}", user.getId() + 100)).andExpect(status().isNotFound());
+
+        String metrics = mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertTrue(metrics.contains("shareit_service_seconds_count{exception=\"none\",method=\"getUserById\","
+                + "service=\"UserServiceImpl\",}"));
+        assertTrue(metrics.contains("shareit_service_seconds_count{exception=\"NotFoundException\","
+                + "method=\"getUserById\",service=\"UserServiceImpl\",}"));
+        assertTrue(metrics.contains("shareit_service_seconds{exception=\"none\",method=\"getUserById\","
+                + "service=\"UserServiceImpl\",quantile=\"0.99\",}"));
+        assertTrue(metrics.contains("shareit_service_seconds_bucket{exception=\"none\",method=\"getUserById\","));
+        assertTrue(metrics.contains("spring_data_repository_invocations_seconds_count{exception=\"None\","
+                + "method=\"findById\",repository=\"UserRepository\",state=\"SUCCESS\",}"));
+    }
+}
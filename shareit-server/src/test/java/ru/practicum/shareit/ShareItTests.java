@@ -1,13 +1,31 @@
 package ru.practicum.shareit;
 
+import org.hibernate.SessionFactory;
+import org.hibernate.boot.spi.SessionFactoryOptions;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 
+import javax.persistence.EntityManagerFactory;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
 @SpringBootTest
 class ShareItTests {
 
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
 	@Test
 	void contextLoads() {
 	}
 
+	@Test
+	void secondLevelCache_shouldBeDisabledByDefault() {
+		SessionFactoryOptions options = entityManagerFactory.unwrap(SessionFactory.class).getSessionFactoryOptions();
+
+		assertFalse(options.isSecondLevelCacheEnabled());
+		assertFalse(options.isQueryCacheEnabled());
+	}
+
 }
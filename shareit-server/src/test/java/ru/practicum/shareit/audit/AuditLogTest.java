@@ -0,0 +1,47 @@
+package ru.practicum.shareit.audit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuditLogTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void record_shouldAppendJsonLinesAndCountDroppedEventsWhenQueueIsFull() throws Exception {
+        Path file = dir.resolve("audit.log");
+        AuditLog auditLog = new AuditLog(objectMapper, meterRegistry, file, 2);
+
+        // поток записи еще не запущен: третье событие не помещается в очередь
+        auditLog.record(AuditEventType.BOOKING_CREATED, 1L, "bookingId", 10L, "itemId", 20L);
+        auditLog.record(AuditEventType.BOOKING_APPROVED, 2L, "bookingId", 10L, "itemId", null);
+        auditLog.record(AuditEventType.USER_DELETED, 3L);
+        auditLog.start();
+        auditLog.close();
+
+        List<String> lines = Files.readAllLines(file);
+        assertEquals(2, lines.size());
+        assertTrue(lines.get(0).matches("\\{\"time\":\"[^\"]+\",\"type\":\"BOOKING_CREATED\",\"userId\":1,"
+                + "\"bookingId\":10,\"itemId\":20}"), lines.get(0));
+        assertTrue(lines.get(1).endsWith("\"type\":\"BOOKING_APPROVED\",\"userId\":2,\"bookingId\":10,"
+                + "\"itemId\":null}"), lines.get(1));
+        assertEquals(2, meterRegistry.get(AuditLog.EVENTS_COUNTER).tag("result", "written").counter().count());
+        assertEquals(1, meterRegistry.get(AuditLog.EVENTS_COUNTER).tag("result", "dropped").counter().count());
+    }
+}
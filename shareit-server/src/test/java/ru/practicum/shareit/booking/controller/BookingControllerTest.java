@@ -6,14 +6,18 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingDtoIn;
 import ru.practicum.shareit.booking.dto.BookingDtoOut;
 import ru.practicum.shareit.booking.dto.BookingShortDto;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.service.BookingEventBus;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.pagination.CursorPage;
 import ru.practicum.shareit.user.dto.UserDto;
 
 import java.nio.charset.StandardCharsets;
@@ -37,6 +41,8 @@ class BookingControllerTest {
     private MockMvc mockMvc;
     @MockBean
     BookingService bookingService;
+    @MockBean
+    BookingEventBus bookingEventBus;
 
     private final UserDto userBookerDto = UserDto.builder().id(2L).name("testUser").email("user@email.ru").build();
     private final ItemDto itemDto = ItemDto.builder().id(1L).name("itemName").description("itemDesc")
@@ -70,6 +76,29 @@ class BookingControllerTest {
         verify(bookingService).createBooking(anyLong(), any(BookingDtoIn.class));
     }
 
+    @SneakyThrows
+    @Test
+    void createBookings() {
+        when(bookingService.createBookings(anyLong(), anyList())).thenReturn(List.of(
+                BookingBatchResultDto.builder().index(0).status(200).booking(bookingDto).build(),
+                BookingBatchResultDto.builder().index(1).status(404).error("Вещь не найдена").build()));
+
+        mockMvc.perform(post("/bookings/batch")
+                        .header("X-Sharer-User-Id", 2L)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(bookingDtoIn, bookingDtoIn))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].status", is(200)))
+                .andExpect(jsonPath("$[0].booking.id", is(bookingDto.getId()), Long.class))
+                .andExpect(jsonPath("$[1].status", is(404)))
+                .andExpect(jsonPath("$[1].error", is("Вещь не найдена")));
+
+        verify(bookingService).createBookings(eq(2L), argThat(list -> list.size() == 2));
+    }
+
     @SneakyThrows
     @Test
     void approveBooking() {
@@ -136,6 +165,38 @@ class BookingControllerTest {
         verify(bookingService).getAllBookingsByUser(anyLong(), eq("ALL"), anyInt(), anyInt());
     }
 
+    @SneakyThrows
+    @Test
+    void getUserBookings_whenIfNoneMatchEqualsETag_shouldReturnNotModifiedWithoutBody() {
+        when(bookingService.getAllBookingsByUserVersion(anyLong(), eq("ALL"), isNull())).thenReturn("2-3-100");
+        when(bookingService.getAllBookingsByUser(anyLong(), eq("ALL"), anyInt(), anyInt()))
+                .thenReturn(List.of(bookingDto, approvedBooking));
+
+        String eTag = mockMvc.perform(get("/bookings")
+                        .header("X-Sharer-User-Id", 1))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "W/\"2-3-100\""))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/bookings")
+                        .header("X-Sharer-User-Id", 1)
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        // при совпадении версии страница не загружается
+        verify(bookingService, times(1)).getAllBookingsByUser(anyLong(), eq("ALL"), anyInt(), anyInt());
+
+        when(bookingService.getAllBookingsByUserVersion(anyLong(), eq("ALL"), isNull())).thenReturn("1-1-200");
+        when(bookingService.getAllBookingsByUser(anyLong(), eq("ALL"), anyInt(), anyInt()))
+                .thenReturn(List.of(bookingDto));
+
+        mockMvc.perform(get("/bookings")
+                        .header("X-Sharer-User-Id", 1)
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)));
+    }
+
     @SneakyThrows
     @Test
     void getUserBookings_whenFromOrSizeNegative_shouldThrowBadRequestException() {
@@ -154,6 +215,24 @@ class BookingControllerTest {
         verify(bookingService, never()).getAllBookingsByUser(anyLong(), anyString(), anyInt(), anyInt());
     }
 
+    @SneakyThrows
+    @Test
+    void getUserBookings_whenAfterPresent_shouldReturnNextCursorHeader() {
+        when(bookingService.getAllBookingsByUserAfter(1L, "ALL", "", 1))
+                .thenReturn(new CursorPage<>(List.of(bookingDto), "Mg"));
+
+        mockMvc.perform(get("/bookings")
+                        .header("X-Sharer-User-Id", 1)
+                        .param("after", "")
+                        .param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(CursorPage.NEXT_CURSOR_HEADER, "Mg"))
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id", is(bookingDto.getId()), Long.class));
+
+        verify(bookingService, never()).getAllBookingsByUser(anyLong(), anyString(), anyInt(), anyInt());
+    }
+
     @SneakyThrows
     @Test
     void getBookingsForUserItems() {
@@ -0,0 +1,113 @@
+package ru.practicum.shareit.booking.controller;
+
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:events",
+        "shareit.booking-events.heartbeat=100ms"})
+@AutoConfigureMockMvc
+class IntBookingEventsTest {
+
+    private static final long WAIT_MILLIS = 5000;
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private UserRepository userRepository;
+
+    private User owner;
+    private User booker;
+    private User stranger;
+    private Booking booking;
+
+    @BeforeEach
+    void setUp() {
+        owner = userRepository.save(User.builder().name("owner").email("owner@mail.ru").build());
+        booker = userRepository.save(User.builder().name("booker").email("booker@mail.ru").build());
+        stranger = userRepository.save(User.builder().name("stranger").email("stranger@mail.ru").build());
+        Item item = itemRepository.save(Item.builder().name("Дрель").description("Аккумуляторная").available(true)
+                .owner(owner).build());
+        booking = bookingRepository.save(Booking.builder().item(item).booker(booker)
+                .start(LocalDateTime.now().plusDays(1)).end(LocalDateTime.now().plusDays(2))
+                .status(BookingStatus.WAITING).build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        bookingRepository.deleteAll();
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    @SneakyThrows
+    void approveBooking_shouldPushStatusToBookerAndOwnerOnly() {
+        MockHttpServletResponse bookerEvents = subscribe(booker.getId());
+        MockHttpServletResponse ownerEvents = subscribe(owner.getId());
+        MockHttpServletResponse strangerEvents = subscribe(stranger.getId());
+
+        mockMvc.perform(patch("/bookings/{bookingId}", booking.getId())
+                        .header("X-Sharer-User-Id", owner.getId())
+                        .param("approved", "true"))
+                .andExpect(status().isOk());
+
+        String expected = "\"status\":\"APPROVED\"";
+        assertTrue(awaitContent(bookerEvents, expected).contains("event:booking-status"));
+        assertTrue(awaitContent(ownerEvents, expected).contains("id:" + booking.getId()));
+        // посторонний получает только пустые комментарии, которые держат соединение открытым
+        assertTrue(awaitContent(strangerEvents, ":").lines().allMatch(line -> line.isEmpty() || line.equals(":")));
+    }
+
+    @Test
+    @SneakyThrows
+    void subscribe_shouldReturnNotFoundForUnknownUser() {
+        mockMvc.perform(get("/bookings/events").header("X-Sharer-User-Id", 999))
+                .andExpect(status().isNotFound());
+    }
+
+    @SneakyThrows
+    private MockHttpServletResponse subscribe(Long userId) {
+        return mockMvc.perform(get("/bookings/events").header("X-Sharer-User-Id", userId))
+                .andExpect(request().asyncStarted())
+                .andReturn().getResponse();
+    }
+
+    @SneakyThrows
+    private static String awaitContent(MockHttpServletResponse response, String expected) {
+        long deadline = System.currentTimeMillis() + WAIT_MILLIS;
+        String content = response.getContentAsString();
+        while (!content.contains(expected) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            content = response.getContentAsString();
+        }
+        assertTrue(content.contains(expected), content);
+        return content;
+    }
+}
@@ -6,14 +6,20 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.booking.dto.BookingDtoOut;
+import ru.practicum.shareit.booking.dto.BookingShortView;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.service.StateOfBookingRequest;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemMapper;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.model.UserMapper;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -76,36 +82,126 @@ class BookingRepositoryTest {
 
 
     @Test
-    void findByBooker() {
-        List<Booking> actualBookings = bookingRepository.findByBooker(booker, PageRequest.of(0,20));
+    void findLastAndNextBookings() {
+        LocalDateTime now = LocalDateTime.now();
+        Booking nearestNext = bookingRepository.save(Booking.builder()
+                .start(now.plusDays(1)).end(now.plusDays(2)).booker(booker).item(item)
+                .status(BookingStatus.APPROVED).build());
+        bookingRepository.save(Booking.builder()
+                .start(now.plusDays(3)).end(now.plusDays(4)).booker(booker).item(item)
+                .status(BookingStatus.WAITING).build());
+        bookingRepository.save(Booking.builder()
+                .start(now.plusHours(1)).end(now.plusHours(2)).booker(booker).item(item)
+                .status(BookingStatus.REJECTED).build());
+
+        List<BookingShortView> lastBookings = bookingRepository.findLastBookings(List.of(item.getId()), now);
+        List<BookingShortView> nextBookings = bookingRepository.findNextBookings(List.of(item.getId()), now);
+
+        assertEquals(1, lastBookings.size());
+        assertEquals(booking.getId(), lastBookings.get(0).getId());
+        assertEquals(item.getId(), lastBookings.get(0).getItemId());
+        assertEquals(booker.getId(), lastBookings.get(0).getBookerId());
+        assertEquals(1, nextBookings.size());
+        assertEquals(nearestNext.getId(), nextBookings.get(0).getId());
+        assertEquals(nearestNext.getStart().withNano(0), nextBookings.get(0).getStart().withNano(0));
+        assertEquals("APPROVED", nextBookings.get(0).getStatus());
+    }
+
+    @Test
+    void findBookerBookings() {
+        List<BookingDtoOut> actualBookings = bookingRepository.findBookerBookings(booker.getId(),
+                StateOfBookingRequest.ALL, PageRequest.of(0, 20));
 
         assertFalse(actualBookings.isEmpty());
         assertEquals(1, actualBookings.size());
 
-        Booking actualBooking = actualBookings.get(0);
+        BookingDtoOut actualBooking = actualBookings.get(0);
+        assertEquals(booking.getId(), actualBooking.getId());
         assertNotNull(actualBooking.getStart());
         assertNotNull(actualBooking.getEnd());
-        assertEquals(item, actualBooking.getItem());
-        assertEquals(booker, actualBooking.getBooker());
+        assertEquals(ItemMapper.toItemDto(item), actualBooking.getItem());
+        assertEquals(UserMapper.toUserDto(booker), actualBooking.getBooker());
         assertEquals(BookingStatus.WAITING, actualBooking.getStatus());
 
     }
 
     @Test
-    void findByItemOwner() {
-        List<Booking> actualBookings = bookingRepository.findByItemOwner(owner, PageRequest.of(0,20));
+    void findOwnerBookings() {
+        List<BookingDtoOut> actualBookings = bookingRepository.findOwnerBookings(owner.getId(),
+                StateOfBookingRequest.ALL, PageRequest.of(0, 20));
 
         assertFalse(actualBookings.isEmpty());
         assertEquals(1, actualBookings.size());
 
-        Booking actualBooking = actualBookings.get(0);
+        BookingDtoOut actualBooking = actualBookings.get(0);
         assertNotNull(actualBooking.getStart());
         assertNotNull(actualBooking.getEnd());
-        assertEquals(item, actualBooking.getItem());
-        assertEquals(booker, actualBooking.getBooker());
+        assertEquals(ItemMapper.toItemDto(item), actualBooking.getItem());
+        assertNull(actualBooking.getItem().getRequestId());
+        assertEquals(UserMapper.toUserDto(booker), actualBooking.getBooker());
         assertEquals(BookingStatus.WAITING, actualBooking.getStatus());
     }
 
+    @Test
+    void findBookerBookings_shouldFilterByState() {
+        List<BookingDtoOut> actualBookings = bookingRepository.findBookerBookings(booker.getId(),
+                StateOfBookingRequest.CURRENT, PageRequest.of(0, 20));
+
+        assertEquals(1, actualBookings.size());
+        assertEquals(booking.getId(), actualBookings.get(0).getId());
+        assertTrue(bookingRepository.findBookerBookings(booker.getId(), StateOfBookingRequest.FUTURE,
+                PageRequest.of(0, 20)).isEmpty());
+        assertTrue(bookingRepository.findBookerBookings(booker.getId(), StateOfBookingRequest.PAST,
+                PageRequest.of(0, 20)).isEmpty());
+    }
+
+    @Test
+    void findOwnerBookings_shouldFillWholePage() {
+        for (int i = 1; i <= 3; i++) {
+            bookingRepository.save(Booking.builder()
+                    .start(LocalDateTime.now().plusDays(i))
+                    .end(LocalDateTime.now().plusDays(i + 1))
+                    .booker(booker)
+                    .item(item)
+                    .status(BookingStatus.REJECTED)
+                    .build());
+        }
+
+        List<BookingDtoOut> actualBookings = bookingRepository.findOwnerBookings(owner.getId(),
+                StateOfBookingRequest.REJECTED, PageRequest.of(0, 2));
+
+        assertEquals(2, actualBookings.size());
+        assertTrue(actualBookings.get(0).getStart().isAfter(actualBookings.get(1).getStart()));
+        assertTrue(actualBookings.stream().allMatch(b -> b.getStatus() == BookingStatus.REJECTED));
+    }
+
+    @Test
+    void findOwnerBookingsAfter_shouldContinueFromCursorWithEqualStart() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+        for (int i = 0; i < 3; i++) {
+            bookingRepository.save(Booking.builder()
+                    .start(start)
+                    .end(start.plusHours(1))
+                    .booker(booker)
+                    .item(item)
+                    .status(BookingStatus.WAITING)
+                    .build());
+        }
+
+        List<BookingDtoOut> firstPage = bookingRepository.findOwnerBookingsAfter(owner.getId(),
+                StateOfBookingRequest.FUTURE, null, null, 2);
+        BookingDtoOut last = firstPage.get(1);
+        List<BookingDtoOut> secondPage = bookingRepository.findOwnerBookingsAfter(owner.getId(),
+                StateOfBookingRequest.FUTURE, last.getStart(), last.getId(), 2);
+
+        assertEquals(2, firstPage.size());
+        assertTrue(firstPage.get(0).getId() > firstPage.get(1).getId());
+        assertEquals(1, secondPage.size());
+        assertTrue(secondPage.get(0).getId() < last.getId());
+        assertTrue(bookingRepository.findBookerBookingsAfter(booker.getId(), StateOfBookingRequest.FUTURE,
+                secondPage.get(0).getStart(), secondPage.get(0).getId(), 2).isEmpty());
+    }
+
     @Test
     void existsBookingByItemAndBookerAndStatusNotAndStart() {
         Boolean result = bookingRepository
@@ -113,4 +209,18 @@ class BookingRepositoryTest {
 
         assertTrue(result);
     }
+
+    @Test
+    void findEarliestApprovedStartEndingAfter_shouldIgnoreFinishedBookings() {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        bookingRepository.save(Booking.builder().start(now.minusDays(3)).end(now.minusDays(2)).booker(booker)
+                .item(item).status(BookingStatus.APPROVED).build());
+        Booking later = bookingRepository.save(Booking.builder().start(now.plusDays(2)).end(now.plusDays(3))
+                .booker(booker).item(item).status(BookingStatus.APPROVED).build());
+
+        assertEquals(later.getStart(), bookingRepository
+                .findEarliestApprovedStartEndingAfter(item.getId(), now.plusDays(1), -1L).orElseThrow());
+        assertTrue(bookingRepository
+                .findEarliestApprovedStartEndingAfter(item.getId(), now.plusDays(1), later.getId()).isEmpty());
+    }
 }
\ No newline at end of file
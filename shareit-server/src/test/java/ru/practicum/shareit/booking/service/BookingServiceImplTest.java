@@ -5,10 +5,13 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import ru.practicum.shareit.audit.AuditEventType;
+import ru.practicum.shareit.audit.AuditLog;
 import ru.practicum.shareit.booking.dto.BookingDtoIn;
 import ru.practicum.shareit.booking.dto.BookingDtoOut;
 import ru.practicum.shareit.booking.dto.BookingShortDto;
@@ -19,18 +22,23 @@ import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.booking.service.BookingServiceImpl;
 import ru.practicum.shareit.exceptoins.AccessException;
 import ru.practicum.shareit.exceptoins.BookingValidationException;
+import ru.practicum.shareit.exceptoins.ConflictException;
 import ru.practicum.shareit.exceptoins.NotFoundException;
 import ru.practicum.shareit.exceptoins.RequestException;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.ItemSummaryUpdater;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.user.model.User;
-import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserCache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -39,12 +47,21 @@ import static org.mockito.Mockito.*;
 @RequiredArgsConstructor
 class BookingServiceImplTest {
 
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
     @Mock
-    UserRepository userRepository;
+    UserCache userCache;
     @Mock
     ItemRepository itemRepository;
     @Mock
     BookingRepository bookingRepository;
+    @Spy
+    BookingContentionMetrics contentionMetrics = new BookingContentionMetrics(meterRegistry);
+    @Mock
+    BookingEventBus bookingEventBus;
+    @Mock
+    AuditLog auditLog;
+    @Mock
+    ItemSummaryUpdater itemSummaryUpdater;
     @InjectMocks
     BookingServiceImpl bookingService;
 
@@ -63,8 +80,8 @@ class BookingServiceImplTest {
     @Test
     void createBooking() {
         Booking booking = BookingMapper.toBooking(bookingDtoIn, user, item);
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
-        when(itemRepository.findById(anyLong())).thenReturn(Optional.of(item));
+        when(userCache.findById(anyLong())).thenReturn(Optional.of(user));
+        when(itemRepository.findWithLockById(anyLong())).thenReturn(Optional.of(item));
         when(bookingRepository.save(booking)).thenReturn(booking);
         BookingDtoOut result = bookingService.createBooking(anyLong(), bookingDtoIn);
 
@@ -74,33 +91,33 @@ class BookingServiceImplTest {
         assertEquals(bookingDtoIn.getBookerId(), result.getBooker().getId());
 
         verify(bookingRepository).save(booking);
-        verify(userRepository).findById(anyLong());
-        verify(itemRepository).findById(anyLong());
+        verify(userCache).findById(anyLong());
+        verify(itemRepository).findWithLockById(anyLong());
     }
 
     @Test
     void createBooking_shouldThrowBookingValidationException_whenItemIsNotAvailable() {
         Item item1 = Item.builder().id(1L).name("item2Name").description("item2Desc").available(false)
                 .owner(user).build();
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
-        when(itemRepository.findById(anyLong())).thenReturn(Optional.of(item1));
+        when(userCache.findById(anyLong())).thenReturn(Optional.of(user));
+        when(itemRepository.findWithLockById(anyLong())).thenReturn(Optional.of(item1));
 
         assertThrows(BookingValidationException.class, () -> bookingService.createBooking(anyLong(), bookingDtoIn));
 
-        verify(userRepository).findById(anyLong());
-        verify(itemRepository).findById(anyLong());
+        verify(userCache).findById(anyLong());
+        verify(itemRepository).findWithLockById(anyLong());
         verifyNoMoreInteractions(bookingRepository);
     }
 
     @Test
     void createBooking_shouldThrowNotFoundException_whenUserTriesToBookOwnItem() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
-        when(itemRepository.findById(anyLong())).thenReturn(Optional.of(item));
+        when(userCache.findById(anyLong())).thenReturn(Optional.of(user));
+        when(itemRepository.findWithLockById(anyLong())).thenReturn(Optional.of(item));
 
         assertThrows(NotFoundException.class, () -> bookingService.createBooking(item.getOwner().getId(), bookingDtoIn));
 
-        verify(userRepository).findById(anyLong());
-        verify(itemRepository).findById(anyLong());
+        verify(userCache).findById(anyLong());
+        verify(itemRepository).findWithLockById(anyLong());
         verifyNoMoreInteractions(bookingRepository);
     }
 
@@ -108,11 +125,58 @@ class BookingServiceImplTest {
     void approveBooking() {
         Booking booking = BookingMapper.toBooking(bookingDtoIn, user, item);
         when(bookingRepository.findById(1L)).thenReturn(Optional.of(booking));
+        when(itemRepository.findWithLockById(item.getId())).thenReturn(Optional.of(item));
 
         BookingDtoOut result = bookingService.approveBooking(1L, 1L, true);
 
         assertEquals(BookingStatus.APPROVED, result.getStatus());
-        verify(bookingRepository).save(booking);
+        verify(bookingRepository).findEarliestApprovedStartEndingAfter(item.getId(), booking.getStart(), 1L);
+        verify(bookingRepository).saveAndFlush(booking);
+        verify(bookingEventBus).publish(booking);
+        verify(auditLog).record(AuditEventType.BOOKING_APPROVED, 1L, "bookingId", 1L, "itemId", item.getId());
+        assertEquals(1, meterRegistry.get("shareit.booking.item.lock.wait").tag("operation", "approve").timer()
+                .count());
+    }
+
+    @Test
+    void approveBooking_shouldThrowConflictException_whenBookingChangedConcurrently() {
+        Booking booking = BookingMapper.toBooking(bookingDtoIn, user, item);
+        when(bookingRepository.findById(1L)).thenReturn(Optional.of(booking));
+        when(bookingRepository.saveAndFlush(booking))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Booking.class, 1L));
+
+        assertThrows(ConflictException.class, () -> bookingService.approveBooking(1L, 1L, false));
+        verifyNoInteractions(bookingEventBus);
+
+        assertEquals(1, meterRegistry.get("shareit.booking.conflicts").counter().count());
+    }
+
+    @Test
+    void approveBooking_shouldThrowBookingValidationException_whenOverlapsApprovedBooking() {
+        Booking booking = BookingMapper.toBooking(bookingDtoIn, user, item);
+        when(bookingRepository.findById(1L)).thenReturn(Optional.of(booking));
+        when(itemRepository.findWithLockById(item.getId())).thenReturn(Optional.of(item));
+        when(bookingRepository.findEarliestApprovedStartEndingAfter(item.getId(), booking.getStart(), 1L))
+                .thenReturn(Optional.of(booking.getStart()));
+
+        assertThrows(BookingValidationException.class, () -> bookingService.approveBooking(1L, 1L, true));
+
+        assertEquals(BookingStatus.WAITING, booking.getStatus());
+        verify(bookingRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void createBooking_shouldThrowBookingValidationException_whenOverlapsApprovedBooking() {
+        Item otherOwnersItem = Item.builder().id(2L).name("item2Name").description("item2Desc").available(true)
+                .owner(new User(2L, "owner", "owner@mail.ru")).build();
+        when(userCache.findById(1L)).thenReturn(Optional.of(user));
+        when(itemRepository.findWithLockById(bookingDtoIn.getItemId())).thenReturn(Optional.of(otherOwnersItem));
+        when(bookingRepository.findEarliestApprovedStartEndingAfter(2L, bookingDtoIn.getStart(), -1L))
+                .thenReturn(Optional.of(bookingDtoIn.getEnd().minusMinutes(1)));
+
+        assertThrows(BookingValidationException.class, () -> bookingService.createBooking(1L, bookingDtoIn));
+
+        verify(bookingRepository, never()).save(any());
     }
 
     @Test
@@ -151,13 +215,13 @@ class BookingServiceImplTest {
     void getBooking() {
         Booking booking = BookingMapper.toBooking(bookingDtoIn, user, item);
         when(bookingRepository.findById(1L)).thenReturn(Optional.of(booking));
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(userCache.findById(1L)).thenReturn(Optional.of(user));
 
         BookingDtoOut bookingDtoOut = bookingService.getBooking(1L, 1L);
 
         assertEquals(1L, bookingDtoOut.getItem().getId());
         verify(bookingRepository).findById(1L);
-        verify(userRepository).findById(1L);
+        verify(userCache).findById(1L);
     }
 
     @Test
@@ -169,12 +233,12 @@ class BookingServiceImplTest {
                 .build();
         Booking booking = BookingMapper.toBooking(bookingDtoIn, user, item);
         when(bookingRepository.findById(1L)).thenReturn(Optional.of(booking));
-        when(userRepository.findById(1L)).thenReturn(Optional.of(anotherUser));
+        when(userCache.findById(2L)).thenReturn(Optional.of(anotherUser));
 
-        assertThrows(AccessException.class, () -> bookingService.getBooking(1L, 1L));
+        assertThrows(AccessException.class, () -> bookingService.getBooking(1L, 2L));
 
         verify(bookingRepository).findById(1L);
-        verify(userRepository).findById(1L);
+        verify(userCache).findById(2L);
     }
 
     @Test
@@ -195,10 +259,9 @@ class BookingServiceImplTest {
                 .start(LocalDateTime.now().plusDays(3))
                 .end(LocalDateTime.now().plusDays(4))
                 .build();
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
-        when(bookingRepository
-                .findByBooker(user, PageRequest.of(0, 10, Sort.by("start").descending())))
-                .thenReturn(List.of(booking2, booking1));
+        when(userCache.findById(1L)).thenReturn(Optional.of(user));
+        when(bookingRepository.findBookerBookings(1L, StateOfBookingRequest.WAITING, PageRequest.of(0, 10)))
+                .thenReturn(toDtos(List.of(booking2, booking1)));
 
         Collection<BookingDtoOut> bookingDtoOuts = bookingService
                 .getAllBookingsByUser(1L, "WAITING", 0, 10);
@@ -206,9 +269,8 @@ class BookingServiceImplTest {
         assertEquals(2, bookingDtoOuts.size());
         assertEquals(2L, bookingDtoOuts.stream().findFirst().get().getId());
         assertEquals(1L, bookingDtoOuts.stream().skip(1).findFirst().get().getId());
-        verify(userRepository).findById(1L);
-        verify(bookingRepository)
-                .findByBooker(user, PageRequest.of(0, 10, Sort.by("start").descending()));
+        verify(userCache).findById(1L);
+        verify(bookingRepository).findBookerBookings(1L, StateOfBookingRequest.WAITING, PageRequest.of(0, 10));
     }
 
     @Test
@@ -234,10 +296,9 @@ class BookingServiceImplTest {
                 .start(LocalDateTime.now().plusDays(1))
                 .end(LocalDateTime.now().plusDays(3))
                 .build();
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
-        when(bookingRepository
-                .findByItemOwner(user, PageRequest.of(0, 10, Sort.by("start").descending())))
-                .thenReturn(List.of(booking2, booking1));
+        when(userCache.findById(1L)).thenReturn(Optional.of(user));
+        when(bookingRepository.findOwnerBookings(1L, StateOfBookingRequest.WAITING, PageRequest.of(0, 10)))
+                .thenReturn(toDtos(List.of(booking2, booking1)));
 
         Collection<BookingDtoOut> bookingDtoOuts = bookingService
                 .getBookingsForUserItems(1L, "WAITING", 0, 10);
@@ -245,15 +306,14 @@ class BookingServiceImplTest {
         assertEquals(2, bookingDtoOuts.size());
         assertEquals(2L, bookingDtoOuts.stream().findFirst().get().getId());
         assertEquals(1L, bookingDtoOuts.stream().skip(1).findFirst().get().getId());
-        verify(userRepository).findById(1L);
-        verify(bookingRepository)
-                .findByItemOwner(user, PageRequest.of(0, 10, Sort.by("start").descending()));
+        verify(userCache).findById(1L);
+        verify(bookingRepository).findOwnerBookings(1L, StateOfBookingRequest.WAITING, PageRequest.of(0, 10));
     }
 
     @Test
     void testGetBookingsForUserItemsWithIncorrectStatus() {
         List<Booking> userBookings = new ArrayList<>();
-        userBookings.add(new Booking(1L, LocalDateTime.now().minusDays(2), LocalDateTime.now().minusDays(1), item, booker, BookingStatus.REJECTED));
+        userBookings.add(new Booking(1L, LocalDateTime.now().minusDays(2), LocalDateTime.now().minusDays(1), item, booker, BookingStatus.REJECTED, null, null));
 
         String state = "INCORRECT";
         Exception exception = assertThrows(RequestException.class, () -> bookingService
@@ -264,11 +324,11 @@ class BookingServiceImplTest {
     @Test
     void testGetBookingsForUserItemsWithWaitingStatus() {
         List<Booking> userBookings = new ArrayList<>();
-        userBookings.add(new Booking(1L, LocalDateTime.now().plusHours(1), LocalDateTime.now().plusHours(2), item, booker, BookingStatus.WAITING));
-        userBookings.add(new Booking(2L, LocalDateTime.now().plusHours(3), LocalDateTime.now().plusHours(4), item, booker, BookingStatus.APPROVED));
+        userBookings.add(new Booking(1L, LocalDateTime.now().plusHours(1), LocalDateTime.now().plusHours(2), item, booker, BookingStatus.WAITING, null, null));
 
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(booker));
-        when(bookingRepository.findByItemOwner(any(User.class), any(Pageable.class))).thenReturn(userBookings);
+        when(userCache.findById(anyLong())).thenReturn(Optional.of(booker));
+        when(bookingRepository.findOwnerBookings(anyLong(), eq(StateOfBookingRequest.WAITING), any(Pageable.class)))
+                .thenReturn(toDtos(userBookings));
 
         Collection<BookingDtoOut> results = bookingService
                 .getBookingsForUserItems(owner.getId(), "WAITING", 0, 10);
@@ -280,10 +340,11 @@ class BookingServiceImplTest {
     @Test
     void testGetBookingsForUserItemsWithRejectedStatus() {
         List<Booking> userBookings = new ArrayList<>();
-        userBookings.add(new Booking(1L, LocalDateTime.now().minusDays(2), LocalDateTime.now().minusDays(1), item, booker, BookingStatus.REJECTED));
+        userBookings.add(new Booking(1L, LocalDateTime.now().minusDays(2), LocalDateTime.now().minusDays(1), item, booker, BookingStatus.REJECTED, null, null));
 
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(booker));
-        when(bookingRepository.findByItemOwner(any(User.class), any(Pageable.class))).thenReturn(userBookings);
+        when(userCache.findById(anyLong())).thenReturn(Optional.of(booker));
+        when(bookingRepository.findOwnerBookings(anyLong(), eq(StateOfBookingRequest.REJECTED), any(Pageable.class)))
+                .thenReturn(toDtos(userBookings));
 
         Collection<BookingDtoOut> results = bookingService
                 .getBookingsForUserItems(owner.getId(), "REJECTED", 0, 10);
@@ -294,11 +355,12 @@ class BookingServiceImplTest {
     @Test
     void testGetBookingsForUserItemsWithPastStatus() {
         List<Booking> userBookings = new ArrayList<>();
-        userBookings.add(new Booking(1L, LocalDateTime.now().minusDays(2), LocalDateTime.now().minusDays(1), item, booker, BookingStatus.APPROVED));
-        userBookings.add(new Booking(2L, LocalDateTime.now().minusDays(5), LocalDateTime.now().minusDays(4), item, booker, BookingStatus.APPROVED));
+        userBookings.add(new Booking(1L, LocalDateTime.now().minusDays(2), LocalDateTime.now().minusDays(1), item, booker, BookingStatus.APPROVED, null, null));
+        userBookings.add(new Booking(2L, LocalDateTime.now().minusDays(5), LocalDateTime.now().minusDays(4), item, booker, BookingStatus.APPROVED, null, null));
 
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(booker));
-        when(bookingRepository.findByItemOwner(any(User.class), any(Pageable.class))).thenReturn(userBookings);
+        when(userCache.findById(anyLong())).thenReturn(Optional.of(booker));
+        when(bookingRepository.findOwnerBookings(anyLong(), eq(StateOfBookingRequest.PAST), any(Pageable.class)))
+                .thenReturn(toDtos(userBookings));
 
         Collection<BookingDtoOut> results = bookingService
                 .getBookingsForUserItems(owner.getId(), "PAST", 0, 10);
@@ -309,11 +371,12 @@ class BookingServiceImplTest {
     @Test
     void testGetBookingsForUserItemsWithFutureStatus() {
         List<Booking> userBookings = new ArrayList<>();
-        userBookings.add(new Booking(1L, LocalDateTime.now().plusDays(2), LocalDateTime.now().plusDays(1), item, booker, BookingStatus.APPROVED));
-        userBookings.add(new Booking(2L, LocalDateTime.now().plusDays(5), LocalDateTime.now().plusDays(4), item, booker, BookingStatus.APPROVED));
+        userBookings.add(new Booking(1L, LocalDateTime.now().plusDays(2), LocalDateTime.now().plusDays(1), item, booker, BookingStatus.APPROVED, null, null));
+        userBookings.add(new Booking(2L, LocalDateTime.now().plusDays(5), LocalDateTime.now().plusDays(4), item, booker, BookingStatus.APPROVED, null, null));
 
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(booker));
-        when(bookingRepository.findByItemOwner(any(User.class), any(Pageable.class))).thenReturn(userBookings);
+        when(userCache.findById(anyLong())).thenReturn(Optional.of(booker));
+        when(bookingRepository.findOwnerBookings(anyLong(), eq(StateOfBookingRequest.FUTURE), any(Pageable.class)))
+                .thenReturn(toDtos(userBookings));
 
         Collection<BookingDtoOut> results = bookingService
                 .getBookingsForUserItems(owner.getId(), "FUTURE", 0, 10);
@@ -321,6 +384,40 @@ class BookingServiceImplTest {
         assertEquals(2, results.size());
     }
 
+    @Test
+    void testGetBookingsForUserItemsWithCurrentStatus() {
+        List<Booking> userBookings = new ArrayList<>();
+        userBookings.add(new Booking(1L, LocalDateTime.now().minusDays(1), LocalDateTime.now().plusDays(1), item, booker, BookingStatus.APPROVED, null, null));
+
+        when(userCache.findById(anyLong())).thenReturn(Optional.of(booker));
+        when(bookingRepository.findOwnerBookings(anyLong(), eq(StateOfBookingRequest.CURRENT), any(Pageable.class)))
+                .thenReturn(toDtos(userBookings));
+
+        Collection<BookingDtoOut> results = bookingService
+                .getBookingsForUserItems(owner.getId(), "CURRENT", 0, 10);
+
+        assertEquals(1, results.size());
+        verify(bookingRepository, never())
+                .findOwnerBookings(anyLong(), eq(StateOfBookingRequest.ALL), any(Pageable.class));
+    }
+
+    @Test
+    void testGetAllBookingsByUserWithCurrentStatus() {
+        List<Booking> userBookings = new ArrayList<>();
+        userBookings.add(new Booking(1L, LocalDateTime.now().minusDays(1), LocalDateTime.now().plusDays(1), item, booker, BookingStatus.APPROVED, null, null));
+
+        when(userCache.findById(anyLong())).thenReturn(Optional.of(booker));
+        when(bookingRepository.findBookerBookings(anyLong(), eq(StateOfBookingRequest.CURRENT), any(Pageable.class)))
+                .thenReturn(toDtos(userBookings));
+
+        Collection<BookingDtoOut> results = bookingService
+                .getAllBookingsByUser(booker.getId(), "CURRENT", 0, 10);
+
+        assertEquals(1, results.size());
+        verify(bookingRepository, never())
+                .findBookerBookings(anyLong(), eq(StateOfBookingRequest.ALL), any(Pageable.class));
+    }
+
     @Test
     void testBookingShortDto() {
         Booking booking = Booking.builder()
@@ -339,4 +436,8 @@ class BookingServiceImplTest {
         assertEquals(booking.getBooker().getId(), convertedDto.getBookerId());
         assertEquals(booking.getStatus().toString(), convertedDto.getStatus());
     }
+
+    private static List<BookingDtoOut> toDtos(List<Booking> bookings) {
+        return bookings.stream().map(BookingMapper::toBookingDtoOut).collect(Collectors.toList());
+    }
 }
@@ -0,0 +1,159 @@
+package ru.practicum.shareit.booking.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.dto.BookingDtoIn;
+import ru.practicum.shareit.booking.dto.BookingDtoOut;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.exceptoins.BookingValidationException;
+import ru.practicum.shareit.exceptoins.ConflictException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// отдельная база: транзакции здесь настоящие, а ожидание блокировки строки дольше, чем по умолчанию в H2
+@SpringBootTest(
+        properties = "spring.datasource.url=jdbc:h2:mem:concurrency;LOCK_TIMEOUT=10000",
+        webEnvironment = SpringBootTest.WebEnvironment.NONE)
+class IntBookingConcurrencyTest {
+
+    private static final int THREADS = 16;
+    private static final int BOOKINGS = 64;
+
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private User owner;
+    private Item item;
+    private final List<User> bookers = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        owner = userRepository.save(User.builder().name("owner").email("owner@mail.ru").build());
+        item = itemRepository.save(Item.builder().name("Дрель").description("Аккумуляторная").available(true)
+                .owner(owner).build());
+        for (int i = 0; i < 8; i++) {
+            bookers.add(userRepository.save(User.builder().name("booker" + i).email("booker" + i + "@mail.ru")
+                    .build()));
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        bookingRepository.deleteAll();
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void concurrentCreateAndApprove_shouldNeverApproveOverlappingBookings() throws Exception {
+        LocalDateTime base = LocalDateTime.now().plusDays(1).withNano(0);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch startGate = new CountDownLatch(1);
+        List<Future<Boolean>> results = new ArrayList<>();
+        for (int i = 0; i < BOOKINGS; i++) {
+            User booker = bookers.get(i % bookers.size());
+            // окна по 3 часа со сдвигом на час: почти каждое пересекается с соседними
+            LocalDateTime start = base.plusHours(i % 12);
+            BookingDtoIn bookingDtoIn = BookingDtoIn.builder().itemId(item.getId()).start(start)
+                    .end(start.plusHours(3)).build();
+            results.add(executor.submit(() -> {
+                startGate.await();
+                try {
+                    BookingDtoOut created = bookingService.createBooking(booker.getId(), bookingDtoIn);
+                    bookingService.approveBooking(created.getId(), owner.getId(), true);
+                    return true;
+                } catch (BookingValidationException e) {
+                    return false;
+                }
+            }));
+        }
+        startGate.countDown();
+        long approvedCount = 0;
+        for (Future<Boolean> result : results) {
+            if (result.get(60, TimeUnit.SECONDS)) {
+                approvedCount++;
+            }
+        }
+        executor.shutdown();
+
+        List<Booking> approved = bookingRepository.findByItem(item).stream()
+                .filter(booking -> booking.getStatus() == BookingStatus.APPROVED)
+                .collect(Collectors.toList());
+        assertEquals(approvedCount, approved.size());
+        assertFalse(approved.isEmpty());
+        for (int i = 0; i < approved.size(); i++) {
+            for (int j = i + 1; j < approved.size(); j++) {
+                Booking first = approved.get(i);
+                Booking second = approved.get(j);
+                assertFalse(first.getStart().isBefore(second.getEnd()) && second.getStart().isBefore(first.getEnd()),
+                        "Пересекаются подтвержденные бронирования " + first.getId() + " и " + second.getId());
+            }
+        }
+    }
+
+    @Test
+    void concurrentDecisions_shouldApplyOnlyOneToTheSameBooking() throws Exception {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        BookingDtoOut created = bookingService.createBooking(bookers.get(0).getId(), BookingDtoIn.builder()
+                .itemId(item.getId()).start(start).end(start.plusHours(3)).build());
+        double conflictsBefore = meterRegistry.counter("shareit.booking.conflicts").count();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch startGate = new CountDownLatch(1);
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            boolean approved = i % 2 == 0;
+            results.add(executor.submit(() -> {
+                startGate.await();
+                try {
+                    bookingService.approveBooking(created.getId(), owner.getId(), approved);
+                    return "applied";
+                } catch (ConflictException e) {
+                    return "conflict";
+                } catch (BookingValidationException e) {
+                    return "already decided";
+                }
+            }));
+        }
+        startGate.countDown();
+        List<String> outcomes = new ArrayList<>();
+        for (Future<String> result : results) {
+            outcomes.add(result.get(60, TimeUnit.SECONDS));
+        }
+        executor.shutdown();
+
+        assertEquals(1, outcomes.stream().filter("applied"::equals).count());
+        assertEquals(outcomes.stream().filter("conflict"::equals).count(),
+                meterRegistry.counter("shareit.booking.conflicts").count() - conflictsBefore);
+        Booking booking = bookingRepository.findById(created.getId()).orElseThrow();
+        assertNotEquals(BookingStatus.WAITING, booking.getStatus());
+        assertEquals(1L, booking.getVersion());
+    }
+}
@@ -0,0 +1,130 @@
+package ru.practicum.shareit.booking.service;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.dto.BookingDtoOut;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserCache;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(
+        properties = {
+                "spring.datasource.url=jdbc:h2:mem:second-level-cache",
+                "shareit.cache.second-level.enabled=true",
+                "spring.jpa.properties.hibernate.generate_statistics=true"
+        },
+        webEnvironment = SpringBootTest.WebEnvironment.NONE)
+class IntBookingSecondLevelCacheTest {
+
+    private static final int OWNERS = 5;
+    private static final int ITEMS = 10;
+
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRequestRepository itemRequestRepository;
+    @Autowired
+    private ItemRequestService itemRequestService;
+    @Autowired
+    private UserCache userCache;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User booker;
+    private final List<Item> items = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        booker = userRepository.save(User.builder().name("booker").email("booker@mail.ru").build());
+        List<User> owners = new ArrayList<>();
+        for (int i = 0; i < OWNERS; i++) {
+            owners.add(userRepository.save(User.builder().name("owner" + i).email("owner" + i + "@mail.ru").build()));
+        }
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        for (int i = 0; i < ITEMS; i++) {
+            Item item = itemRepository.save(Item.builder().name("item" + i).description("desc" + i).available(true)
+                    .owner(owners.get(i % OWNERS)).build());
+            items.add(item);
+            bookingRepository.save(Booking.builder().start(start.plusDays(i)).end(start.plusDays(i + 1))
+                    .item(item).booker(booker).status(BookingStatus.WAITING).build());
+        }
+        userCache.findById(booker.getId());
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @AfterEach
+    void tearDown() {
+        bookingRepository.deleteAll();
+        itemRepository.deleteAll();
+        itemRequestRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void getUserRequests_shouldBeServedFromQueryAndEntityCache() {
+        ItemRequest request = itemRequestRepository.save(ItemRequest.builder().description("Нужна дрель")
+                .requestor(booker).created(LocalDateTime.now()).build());
+        Item answer = items.get(0);
+        answer.setRequest(request);
+        itemRepository.save(answer);
+        entityManagerFactory.getCache().evictAll();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        statistics.clear();
+        itemRequestService.getUserRequests(booker.getId());
+        long coldStatements = statistics.getPrepareStatementCount();
+
+        statistics.clear();
+        Collection<ItemRequestDto> requests = itemRequestService.getUserRequests(booker.getId());
+        long warmStatements = statistics.getPrepareStatementCount();
+
+        assertEquals(1, requests.size());
+        assertEquals(1, requests.iterator().next().getItems().size());
+        // холодный кэш: запросы пользователя и ответившие на них вещи
+        assertEquals(2, coldStatements);
+        // теплый кэш: оба результата берутся из кэша запросов, сущности - из кэша второго уровня
+        assertEquals(0, warmStatements);
+        assertTrue(statistics.getQueryCacheHitCount() >= 2);
+        assertTrue(statistics.getSecondLevelCacheHitCount() >= 2);
+    }
+
+    @Test
+    void getAllBookingsByUser_shouldSeeItemChangesThroughCache() {
+        bookingService.getAllBookingsByUser(booker.getId(), "ALL", 0, 20);
+        Item item = items.get(0);
+        item.setName("renamed");
+        itemRepository.save(item);
+
+        Collection<BookingDtoOut> bookings = bookingService.getAllBookingsByUser(booker.getId(), "ALL", 0, 20);
+
+        assertTrue(bookings.stream().anyMatch(booking -> "renamed".equals(booking.getItem().getName())));
+    }
+}
@@ -5,7 +5,10 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
+import ru.practicum.shareit.booking.dto.BookingDtoIn;
 import ru.practicum.shareit.booking.dto.BookingDtoOut;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
@@ -16,7 +19,10 @@ import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -93,4 +99,73 @@ public class IntBookingServiceImplTest {
             assertNotNull(dto.getStatus());
         }
     }
+
+    @Test
+    void testCreateBookings_shouldReturnResultForEachEntry() {
+        Item unavailableItem = itemRepository.save(Item.builder().name("item3Name").description("item3Desc")
+                .available(false).owner(user).build());
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        List<BookingDtoIn> bookingDtoIns = List.of(
+                BookingDtoIn.builder().itemId(item.getId()).start(start).end(start.plusDays(1)).build(),
+                BookingDtoIn.builder().itemId(999L).start(start).end(start.plusDays(1)).build(),
+                BookingDtoIn.builder().itemId(unavailableItem.getId()).start(start).end(start.plusDays(1)).build(),
+                BookingDtoIn.builder().itemId(secondItem.getId()).start(start).end(start.plusDays(2)).build());
+
+        List<BookingBatchResultDto> results = bookingService.createBookings(booker.getId(), bookingDtoIns);
+
+        assertEquals(4, results.size());
+        assertEquals(200, results.get(0).getStatus());
+        assertEquals(item.getId(), results.get(0).getBooking().getItem().getId());
+        assertEquals(BookingStatus.WAITING, results.get(0).getBooking().getStatus());
+        assertEquals(404, results.get(1).getStatus());
+        assertNull(results.get(1).getBooking());
+        assertEquals(400, results.get(2).getStatus());
+        assertNotNull(results.get(2).getError());
+        assertEquals(200, results.get(3).getStatus());
+        assertEquals(3, results.get(3).getIndex());
+        assertNotNull(results.get(3).getBooking().getId());
+        assertEquals(4, bookingRepository.findBookerBookings(booker.getId(), StateOfBookingRequest.ALL,
+                Pageable.unpaged()).size());
+    }
+
+    @Test
+    void testCreateBookings_shouldRejectInvalidEntriesIndividually() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        List<BookingDtoIn> bookingDtoIns = Arrays.asList(
+                BookingDtoIn.builder().start(start).end(start.plusDays(1)).build(),
+                null,
+                BookingDtoIn.builder().itemId(item.getId()).start(start.plusDays(1)).end(start).build(),
+                BookingDtoIn.builder().itemId(item.getId()).start(start).build(),
+                BookingDtoIn.builder().itemId(secondItem.getId()).start(start).end(start.plusDays(1)).build());
+        int before = bookingRepository.findBookerBookings(booker.getId(), StateOfBookingRequest.ALL,
+                Pageable.unpaged()).size();
+
+        List<BookingBatchResultDto> results = bookingService.createBookings(booker.getId(), bookingDtoIns);
+
+        assertEquals(List.of(404, 400, 400, 400, 200), results.stream()
+                .map(BookingBatchResultDto::getStatus).collect(Collectors.toList()));
+        assertEquals(before + 1, bookingRepository.findBookerBookings(booker.getId(), StateOfBookingRequest.ALL,
+                Pageable.unpaged()).size());
+    }
+
+    @Test
+    void testCreateBookings_shouldReturnNotFoundWhenNoEntryHasItem() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+
+        List<BookingBatchResultDto> results = bookingService.createBookings(booker.getId(), List.of(
+                BookingDtoIn.builder().start(start).end(start.plusDays(1)).build()));
+
+        assertEquals(404, results.get(0).getStatus());
+    }
+
+    @Test
+    void testCreateBookings_shouldRejectOwnItems() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        List<BookingBatchResultDto> results = bookingService.createBookings(user.getId(), List.of(
+                BookingDtoIn.builder().itemId(item.getId()).start(start).end(start.plusDays(1)).build()));
+
+        assertEquals(1, results.size());
+        assertEquals(404, results.get(0).getStatus());
+        assertEquals(0, results.get(0).getIndex());
+    }
 }
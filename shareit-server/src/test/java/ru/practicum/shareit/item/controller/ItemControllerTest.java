@@ -14,16 +14,19 @@ import ru.practicum.shareit.item.dto.CommentShortDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemUpdateDto;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.pagination.CursorPage;
 
 import java.time.LocalDateTime;
 import java.util.List;
 
+import static org.hamcrest.Matchers.is;
 import static org.hamcrest.collection.IsCollectionWithSize.hasSize;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 
@@ -218,6 +221,33 @@ class ItemControllerTest {
         verify(itemService).addNewComment(any(CommentShortDto.class), anyLong(), anyLong());
     }
 
+    @SneakyThrows
+    @Test
+    void getItemComments_shouldReturnNextCursorHeader() {
+        CommentShortDto shortDto = CommentShortDto.builder().id(2L).text("test comment").itemId(1L)
+                .authorName("authorName").created(LocalDateTime.now()).build();
+        when(itemService.getItemComments(1L, null, 1)).thenReturn(new CursorPage<>(List.of(shortDto), "MQ"));
+
+        mockMvc.perform(get("/items/{itemId}/comments", 1)
+                        .header("X-Sharer-User-Id", 1)
+                        .param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(CursorPage.NEXT_CURSOR_HEADER, "MQ"))
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id", is(shortDto.getId()), Long.class));
+    }
+
+    @SneakyThrows
+    @Test
+    void getItemComments_whenSizeNotPositive_shouldReturnBadRequest() {
+        mockMvc.perform(get("/items/{itemId}/comments", 1)
+                        .header("X-Sharer-User-Id", 1)
+                        .param("size", "0"))
+                .andExpect(status().isBadRequest());
+
+        verify(itemService, never()).getItemComments(anyLong(), any(), any());
+    }
+
     @SneakyThrows
     @Test
     void createItemCommentWithoutText() {
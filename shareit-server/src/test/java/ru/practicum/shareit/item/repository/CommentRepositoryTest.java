@@ -5,13 +5,17 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
 import ru.practicum.shareit.item.comment.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -56,8 +60,23 @@ class CommentRepositoryTest {
     }
 
     @Test
-    void findByItemOrderByIdAsc() {
-        List<Comment> actualsComment = commentRepository.findByItemOrderByIdAsc(item);
+    void findByItemIdOrderByIdDesc() {
+        Comment newerComment = commentRepository.save(Comment.builder().text("Перечитаю")
+                .created(LocalDateTime.now()).author(commentator).item(item).build());
+
+        List<Comment> actualsComment = commentRepository.findByItemIdOrderByIdDesc(item.getId(),
+                PageRequest.of(0, 1));
+
+        assertEquals(1, actualsComment.size());
+        assertEquals(newerComment.getId(), actualsComment.get(0).getId());
+        assertEquals(1, commentRepository.findByItemIdAndIdLessThanOrderByIdDesc(item.getId(),
+                newerComment.getId(), PageRequest.of(0, 10)).size());
+    }
+
+    @Test
+    void findByItemIdOrderByIdDesc_shouldFetchAuthor() {
+        List<Comment> actualsComment = commentRepository.findByItemIdOrderByIdDesc(item.getId(),
+                PageRequest.of(0, 10));
 
         assertFalse(actualsComment.isEmpty());
         assertEquals(1, actualsComment.size());
@@ -65,5 +84,26 @@ class CommentRepositoryTest {
         Comment actualComment = actualsComment.get(0);
         assertEquals("Отличная книга",actualComment.getText());
         assertNotNull(actualComment.getCreated());
+        assertEquals(commentator.getName(), actualComment.getAuthor().getName());
+    }
+
+    @Test
+    void findLatestIdsByItemIdIn_shouldLimitCommentsOfEachItem() {
+        Item secondItem = itemRepository.save(Item.builder().name("Дрель").description("Ударная").available(true)
+                .owner(owner).build());
+        Comment second = commentRepository.save(Comment.builder().text("Перечитаю")
+                .created(LocalDateTime.now()).author(commentator).item(item).build());
+        Comment third = commentRepository.save(Comment.builder().text("Советую")
+                .created(LocalDateTime.now()).author(commentator).item(item).build());
+        Comment drill = commentRepository.save(Comment.builder().text("Сверлит")
+                .created(LocalDateTime.now()).author(commentator).item(secondItem).build());
+
+        List<Long> ids = commentRepository.findLatestIdsByItemIdIn(List.of(item.getId(), secondItem.getId()), 2);
+        List<Comment> actualsComment = commentRepository.findByIdInOrderByIdAsc(ids);
+
+        assertEquals(List.of(second.getId(), third.getId(), drill.getId()),
+                actualsComment.stream().map(Comment::getId).collect(Collectors.toList()));
+        assertEquals(commentator.getName(), actualsComment.get(0).getAuthor().getName());
+        assertEquals(Set.of(second.getId(), third.getId(), drill.getId()), new HashSet<>(ids));
     }
 }
\ No newline at end of file
@@ -6,7 +6,9 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemMapper;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
@@ -62,12 +64,23 @@ class ItemRepositoryTest {
 
     @Test
     void search() {
-            List<Item> actualItems = itemRepository.search("письмен", PageRequest.of(0, 10));
+            List<ItemDto> actualItems = itemRepository.search("письмен", PageRequest.of(0, 10));
 
             assertFalse(actualItems.isEmpty());
             assertEquals(1, actualItems.size());
         }
 
+    @Test
+    void search_shouldSkipUnavailableItems() {
+        itemRepository.save(Item.builder().name("Стол письменный").description("Занят").available(false)
+                .owner(owner).build());
+
+        List<ItemDto> actualItems = itemRepository.search("письмен", PageRequest.of(0, 10));
+
+        assertEquals(1, actualItems.size());
+        assertTrue(actualItems.get(0).getAvailable());
+    }
+
     @Test
     void findAllByRequestIdIn() {
         User requestor = User.builder().name("requestor").email("req@mail.ru").build();
@@ -87,4 +100,23 @@ class ItemRepositoryTest {
         assertEquals(1, actualItems.size());
 
     }
-}
\ No newline at end of file
+
+    @Test
+    void findItemDtosByIdIn_shouldTakeRequestIdFromForeignKey() {
+        User requestor = User.builder().name("requestor").email("req@mail.ru").build();
+        userRepository.save(requestor);
+        ItemRequest request = ItemRequest.builder().description("Куплю ручку").requestor(requestor)
+                .created(LocalDateTime.now()).build();
+        itemRequestRepository.save(request);
+        Item itemWithRequest = itemRepository.save(Item.builder().name("Ручка").description("Ручка гелеевая синяя")
+                .available(true).owner(owner).request(request).build());
+
+        List<ItemDto> actualItems = itemRepository.findItemDtosByIdIn(List.of(item.getId(), itemWithRequest.getId()));
+
+        assertEquals(2, actualItems.size());
+        assertTrue(actualItems.contains(ItemMapper.toItemDto(item)));
+        assertTrue(actualItems.contains(ItemMapper.toItemDto(itemWithRequest)));
+        assertEquals(List.of(ItemMapper.toItemDto(itemWithRequest)),
+                itemRepository.findItemDtosByRequestIdIn(List.of(request.getId())));
+    }
+}
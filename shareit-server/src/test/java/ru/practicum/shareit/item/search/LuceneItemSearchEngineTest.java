@@ -0,0 +1,123 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemMapper;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.pagination.Cursor;
+import ru.practicum.shareit.pagination.CursorPage;
+import ru.practicum.shareit.user.model.User;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LuceneItemSearchEngineTest {
+
+    @Mock
+    ItemRepository itemRepository;
+
+    private LuceneItemSearchEngine searchEngine;
+
+    private final User owner = new User(1L, "owner", "owner@mail.ru");
+    private final Item drill = Item.builder().id(1L).name("Дрель").description("Простая дрель")
+            .available(true).owner(owner).build();
+    private final Item screwdriver = Item.builder().id(2L).name("Отвертка")
+            .description("Аккумуляторная, подходит вместо дрели").available(true).owner(owner).build();
+    private final Item brokenDrill = Item.builder().id(3L).name("Дрель ударная").description("Сломана")
+            .available(false).owner(owner).build();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        searchEngine = new LuceneItemSearchEngine(itemRepository);
+        searchEngine.index(drill);
+        searchEngine.index(screwdriver);
+        searchEngine.index(brokenDrill);
+        lenient().when(itemRepository.findItemDtosByIdIn(anyList())).thenAnswer(invocation -> {
+            List<Long> ids = invocation.getArgument(0);
+            return List.of(drill, screwdriver, brokenDrill).stream()
+                    .filter(item -> ids.contains(item.getId()))
+                    .map(ItemMapper::toItemDto)
+                    .collect(Collectors.toList());
+        });
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        searchEngine.close();
+    }
+
+    @Test
+    void search_shouldMatchWordPrefixIgnoringCase() {
+        List<ItemDto> items = searchEngine.search("аккум", 0, 10);
+
+        assertEquals(dtos(screwdriver), items);
+    }
+
+    @Test
+    void search_shouldRankNameMatchesFirstAndSkipUnavailable() {
+        List<ItemDto> items = searchEngine.search("ДРЕЛ", 0, 10);
+
+        assertEquals(dtos(drill, screwdriver), items);
+    }
+
+    @Test
+    void search_shouldRequireAllWords() {
+        assertEquals(dtos(drill), searchEngine.search("простая дрель", 0, 10));
+        assertTrue(searchEngine.search("простая отвертка", 0, 10).isEmpty());
+    }
+
+    @Test
+    void search_shouldPageInsideIndex() {
+        assertEquals(dtos(screwdriver), searchEngine.search("дрел", 1, 1));
+        assertTrue(searchEngine.search("дрел", 2, 1).isEmpty());
+    }
+
+    @Test
+    void searchAfter_shouldContinueFromCursor() {
+        CursorPage<ItemDto> firstPage = searchEngine.searchAfter("дрел", null, 1);
+        CursorPage<ItemDto> secondPage = searchEngine.searchAfter("дрел", Cursor.decode(firstPage.getNextCursor()), 1);
+
+        assertEquals(dtos(drill), firstPage.getContent());
+        assertNotNull(firstPage.getNextCursor());
+        assertEquals(dtos(screwdriver), secondPage.getContent());
+        assertNull(secondPage.getNextCursor());
+    }
+
+    @Test
+    void index_shouldReplacePreviousVersionOfItem() {
+        brokenDrill.setAvailable(true);
+        searchEngine.index(brokenDrill);
+
+        assertEquals(3, searchEngine.search("дрел", 0, 10).size());
+
+        brokenDrill.setName("Перфоратор");
+        brokenDrill.setDescription("Без сверл");
+        searchEngine.index(brokenDrill);
+
+        assertEquals(dtos(brokenDrill), searchEngine.search("перфоратор", 0, 10));
+        assertEquals(2, searchEngine.search("дрел", 0, 10).size());
+    }
+
+    @Test
+    void search_shouldReturnEmptyListForBlankText() {
+        assertTrue(searchEngine.search("  ", 0, 10).isEmpty());
+        verifyNoInteractions(itemRepository);
+    }
+
+    private static List<ItemDto> dtos(Item... items) {
+        return Stream.of(items).map(ItemMapper::toItemDto).collect(Collectors.toList());
+    }
+}
@@ -12,13 +12,20 @@ import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.CommentShortDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.BookingSnapshot;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemSummary;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.repository.ItemSummaryRepository;
+import ru.practicum.shareit.pagination.CursorPage;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserService;
 
+import javax.persistence.EntityManager;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -37,6 +44,16 @@ public class IntItemServiceImplTest {
     private final ItemServiceImpl itemService;
     @Autowired
     private final BookingRepository bookingRepository;
+    @Autowired
+    private final ItemSummaryUpdater itemSummaryUpdater;
+    @Autowired
+    private final ItemSummaryRefresher itemSummaryRefresher;
+    @Autowired
+    private final ItemSummaryRepository itemSummaryRepository;
+    @Autowired
+    private final UserService userService;
+    @Autowired
+    private final EntityManager entityManager;
     private final User user = User.builder().name("user").email("user@mail.ru").build();
     private final Item item = Item.builder().name("itemName").description("item1Desc").available(true)
             .owner(user).build();
@@ -54,6 +71,8 @@ public class IntItemServiceImplTest {
         itemRepository.save(item);
         itemRepository.save(secondItem);
         bookingRepository.save(booking);
+        // вещи сохранены в обход сервиса: строки сводки создаются при пересчете их бронирований
+        itemSummaryUpdater.bookingsChanged(List.of(item.getId(), secondItem.getId()));
     }
 
     @Test
@@ -78,6 +97,42 @@ public class IntItemServiceImplTest {
         assertNotNull(secondItem.getAvailable());
     }
 
+    @Test
+    void testGetUserItems_shouldTakeBookingsFromSummary() {
+        Booking nextBooking = bookingRepository.save(Booking.builder().start(LocalDateTime.now().plusDays(1))
+                .end(LocalDateTime.now().plusDays(2)).item(secondItem).booker(booker)
+                .status(BookingStatus.WAITING).build());
+        itemSummaryUpdater.bookingsChanged(List.of(secondItem.getId()));
+
+        List<ItemDto> userItems = itemService.getAllItemsByOwnerId(user.getId(), 0, 10);
+
+        // вещь со следующим бронированием идет первой
+        assertEquals(secondItem.getId(), userItems.get(0).getId());
+        assertEquals(nextBooking.getId(), userItems.get(0).getNextBooking().getId());
+        assertNull(userItems.get(0).getLastBooking());
+        assertEquals(item.getId(), userItems.get(1).getId());
+        assertEquals(booking.getId(), userItems.get(1).getLastBooking().getId());
+        assertNull(userItems.get(1).getNextBooking());
+    }
+
+    @Test
+    void testGetUserItems_shouldMoveStartedNextBookingToLastOnRefresh() {
+        ItemSummary summary = itemSummaryRepository.findById(item.getId()).orElseThrow();
+        // сводка посчитана до начала бронирования
+        summary.setLastBooking(null);
+        summary.setNextBooking(BookingSnapshot.builder().id(booking.getId()).start(booking.getStart())
+                .end(booking.getEnd()).bookerId(booker.getId()).status(booking.getStatus().name()).build());
+
+        ItemDto beforeRefresh = ownerItem(item.getId());
+        assertEquals(booking.getId(), beforeRefresh.getNextBooking().getId());
+
+        itemSummaryRefresher.refresh();
+
+        ItemDto afterRefresh = ownerItem(item.getId());
+        assertEquals(booking.getId(), afterRefresh.getLastBooking().getId());
+        assertNull(afterRefresh.getNextBooking());
+    }
+
     @Test
     @Transactional
     public void testAddComment() {
@@ -97,5 +152,61 @@ public class IntItemServiceImplTest {
         assertEquals("test comment", comment.getText());
         assertEquals(itemId, comment.getItem().getId());
         assertEquals(booker.getName(), comment.getAuthorName());
+        assertEquals(1L, itemService.getItemById(itemId, userId).getCommentsCount());
+    }
+
+    @Test
+    void testItemViews_shouldEmbedOnlyLatestComments() {
+        CommentShortDto commentDto = CommentShortDto.builder().text("comment").build();
+        int total = ItemServiceImpl.COMMENTS_PREVIEW_SIZE + 2;
+        List<Long> commentIds = new ArrayList<>();
+        for (int i = 0; i < total; i++) {
+            commentIds.add(itemService.addNewComment(commentDto, item.getId(), booker.getId()).getId());
+        }
+
+        ItemDto itemDto = itemService.getItemById(item.getId(), booker.getId());
+
+        assertEquals((long) total, itemDto.getCommentsCount());
+        assertEquals(commentIds.subList(2, total), itemDto.getComments().stream()
+                .map(CommentShortDto::getId).collect(Collectors.toList()));
+        ItemDto ownerItemDto = itemService.getAllItemsByOwnerId(item.getOwner().getId(), 0, 10).get(0);
+        assertEquals((long) total, ownerItemDto.getCommentsCount());
+        assertEquals(commentIds.subList(2, total), ownerItemDto.getComments().stream()
+                .map(CommentShortDto::getId).collect(Collectors.toList()));
+
+        CursorPage<CommentShortDto> firstPage = itemService.getItemComments(item.getId(), null, total - 1);
+        assertEquals(commentIds.get(total - 1), firstPage.getContent().get(0).getId());
+        CursorPage<CommentShortDto> lastPage = itemService.getItemComments(item.getId(),
+                firstPage.getNextCursor(), total - 1);
+        assertEquals(List.of(commentIds.get(0)), lastPage.getContent().stream()
+                .map(CommentShortDto::getId).collect(Collectors.toList()));
+        assertNull(lastPage.getNextCursor());
+    }
+
+    @Test
+    void testDeleteCommentAuthor_shouldDecrementCommentsCount() {
+        CommentShortDto commentDto = CommentShortDto.builder().text("comment").build();
+        itemService.addNewComment(commentDto, item.getId(), booker.getId());
+        itemService.addNewComment(commentDto, item.getId(), booker.getId());
+        User otherAuthor = userRepository.save(User.builder().name("user3").email("user3@mail.ru").build());
+        bookingRepository.save(Booking.builder().start(LocalDateTime.now().minusDays(2))
+                .end(LocalDateTime.now().minusDays(1)).item(item).booker(otherAuthor)
+                .status(BookingStatus.APPROVED).build());
+        itemService.addNewComment(commentDto, item.getId(), otherAuthor.getId());
+
+        userService.deleteUser(booker.getId());
+        entityManager.flush();
+        entityManager.clear();
+
+        ItemDto itemDto = itemService.getItemById(item.getId(), user.getId());
+        assertEquals(1L, itemDto.getCommentsCount());
+        assertEquals(1, itemDto.getComments().size());
+    }
+
+    private ItemDto ownerItem(Long itemId) {
+        return itemService.getAllItemsByOwnerId(user.getId(), 0, 10).stream()
+                .filter(itemDto -> itemDto.getId().equals(itemId))
+                .findFirst()
+                .orElseThrow();
     }
 }
@@ -7,8 +7,11 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Sort;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import ru.practicum.shareit.audit.AuditLog;
+import ru.practicum.shareit.booking.dto.BookingShortView;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingMapper;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.exceptoins.AccessException;
@@ -20,17 +23,24 @@ import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.CommentShortDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemUpdateDto;
+import ru.practicum.shareit.item.model.BookingSnapshot;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.model.ItemMapper;
+import ru.practicum.shareit.item.model.ItemSummary;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.repository.ItemSummaryRepository;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.pagination.Cursor;
+import ru.practicum.shareit.pagination.CursorPage;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
-import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserCache;
 
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -45,13 +55,21 @@ class ItemServiceImplTest {
     @Mock
     ItemRepository itemRepository;
     @Mock
-    UserRepository userRepository;
+    UserCache userCache;
     @Mock
     CommentRepository commentRepository;
     @Mock
     BookingRepository bookingRepository;
     @Mock
     CommentMapper commentMapper;
+    @Mock
+    ItemSearchEngine itemSearchEngine;
+    @Mock
+    AuditLog auditLog;
+    @Mock
+    ItemSummaryRepository itemSummaryRepository;
+    @Mock
+    ItemSummaryUpdater itemSummaryUpdater;
     @InjectMocks
     ItemServiceImpl itemService;
 
@@ -87,7 +105,7 @@ class ItemServiceImplTest {
                 .description("Update desc")
                 .build();
 
-        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
+        when(userCache.findById(user.getId())).thenReturn(Optional.of(user));
         when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
         when(itemRepository.save(item)).thenReturn(item);
 
@@ -95,9 +113,10 @@ class ItemServiceImplTest {
 
         assertEquals("UpdateName", result.getName());
         assertEquals("Update desc", result.getDescription());
+        verify(itemSearchEngine).index(item);
 
         verify(itemRepository).findById(item.getId());
-        verify(userRepository).findById(user.getId());
+        verify(userCache).findById(user.getId());
         verify(itemRepository).save(item);
     }
 
@@ -111,7 +130,7 @@ class ItemServiceImplTest {
                 .available(true)
                 .build();
 
-        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
+        when(userCache.findById(user.getId())).thenReturn(Optional.of(user));
         when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
         when(itemRepository.save(item)).thenReturn(item);
 
@@ -120,7 +139,7 @@ class ItemServiceImplTest {
         assertTrue(result.getAvailable());
 
         verify(itemRepository).findById(item.getId());
-        verify(userRepository).findById(user.getId());
+        verify(userCache).findById(user.getId());
         verify(itemRepository).save(item);
     }
 
@@ -135,7 +154,7 @@ class ItemServiceImplTest {
                 .description("Update desc")
                 .build();
 
-        when(userRepository.findById(user.getId())).thenReturn(Optional.empty());
+        when(userCache.findById(user.getId())).thenReturn(Optional.empty());
 
         assertThrows(NotFoundException.class, () -> itemService.updateItem(user.getId(), item.getId(), itemUpdateDto));
     }
@@ -150,7 +169,7 @@ class ItemServiceImplTest {
                 .description("Update desc")
                 .build();
 
-        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
+        when(userCache.findById(user.getId())).thenReturn(Optional.of(user));
         when(itemRepository.findById(item.getId())).thenReturn(Optional.empty());
 
         assertThrows(NotFoundException.class, () -> itemService.updateItem(user.getId(), item.getId(), itemUpdateDto));
@@ -166,7 +185,7 @@ class ItemServiceImplTest {
                 .build();
 
         User notOwner = new User(2L, "NotOwnerName", "notowner@mail.ru");
-        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
+        when(userCache.findById(user.getId())).thenReturn(Optional.of(user));
         when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
         item.setOwner(notOwner);
 
@@ -178,7 +197,7 @@ class ItemServiceImplTest {
         Item item = ItemMapper.toItem(itemDto, user);
         item.setRequest(itemRequest);
 
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
+        when(userCache.findById(anyLong())).thenReturn(Optional.of(user));
         when(requestRepository.findById(itemDto.getRequestId())).thenReturn(Optional.of(itemRequest));
         when(itemRepository.save(item)).thenReturn(item);
 
@@ -189,18 +208,19 @@ class ItemServiceImplTest {
         assertEquals(itemDto.getDescription(), createdItem.getDescription());
         assertEquals(itemDto.getRequestId(), createdItem.getRequestId());
 
-        verify(userRepository).findById(user.getId());
+        verify(userCache).findById(user.getId());
         verify(requestRepository).findById(itemDto.getRequestId());
         verify(itemRepository).save(item);
+        verify(itemSearchEngine).index(item);
     }
 
     @Test
     void addItem_whenUserNotFound_shouldThrowNotFoundException() {
-        when(userRepository.findById(any())).thenReturn(Optional.empty());
+        when(userCache.findById(any())).thenReturn(Optional.empty());
 
         assertThrows(NotFoundException.class, () -> itemService.addItem(user.getId(), itemDto));
 
-        verify(userRepository).findById(user.getId());
+        verify(userCache).findById(user.getId());
         verify(itemRepository, never()).save(any(Item.class));
     }
 
@@ -209,12 +229,12 @@ class ItemServiceImplTest {
         ItemDto itemDtoWithNotRequestId = ItemDto.builder().id(1L).name("itemName").description("itemDesc")
                 .available(true).requestId(100L).build();
 
-        when(userRepository.findById(any())).thenReturn(Optional.of(user));
+        when(userCache.findById(any())).thenReturn(Optional.of(user));
         when(requestRepository.findById(itemDtoWithNotRequestId.getRequestId())).thenThrow(NotFoundException.class);
 
         assertThrows(NotFoundException.class, () -> itemService.addItem(1L, itemDtoWithNotRequestId));
 
-        verify(userRepository).findById(user.getId());
+        verify(userCache).findById(user.getId());
         verify(requestRepository).findById(100L);
         verify(itemRepository, never()).save(any(Item.class));
     }
@@ -233,21 +253,28 @@ class ItemServiceImplTest {
                 .end(LocalDateTime.now().plusHours(5))
                 .item(item).booker(booker).status(BookingStatus.WAITING).build();
 
-        List<Booking> bookings = List.of(bookingOne, bookingTwo);
-
-        ItemDto expectedItemDto = ItemMapper.toItemDto(item, comments, bookings);
+        ItemDto expectedItemDto = ItemMapper.toItemDto(item, comments, null,
+                BookingMapper.toShortBookingDto(bookingOne));
 
         when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
-        when(commentRepository.findByItemOrderByIdAsc(item)).thenReturn(comments);
-        when(bookingRepository.findByItem(item)).thenReturn(bookings);
+        when(commentRepository.findByItemIdOrderByIdDesc(item.getId(),
+                PageRequest.of(0, ItemServiceImpl.COMMENTS_PREVIEW_SIZE))).thenReturn(comments);
+        when(bookingRepository.findLastBookings(eq(List.of(item.getId())), any(LocalDateTime.class)))
+                .thenReturn(Collections.emptyList());
+        when(bookingRepository.findNextBookings(eq(List.of(item.getId())), any(LocalDateTime.class)))
+                .thenReturn(List.of(toView(bookingOne)));
 
         ItemDto actualItemDto = itemService.getItemById(item.getId(), user.getId());
 
         assertEquals(expectedItemDto, actualItemDto);
+        assertNull(actualItemDto.getLastBooking());
+        assertNotEquals(bookingTwo.getId(), actualItemDto.getNextBooking().getId());
 
         verify(itemRepository).findById(item.getId());
-        verify(commentRepository).findByItemOrderByIdAsc(item);
-        verify(bookingRepository).findByItem(item);
+        verify(commentRepository).findByItemIdOrderByIdDesc(item.getId(),
+                PageRequest.of(0, ItemServiceImpl.COMMENTS_PREVIEW_SIZE));
+        verify(bookingRepository).findLastBookings(eq(List.of(item.getId())), any(LocalDateTime.class));
+        verify(bookingRepository).findNextBookings(eq(List.of(item.getId())), any(LocalDateTime.class));
         verifyNoMoreInteractions(itemRepository, commentRepository, bookingRepository);
     }
 
@@ -269,27 +296,60 @@ class ItemServiceImplTest {
         Item item = ItemMapper.toItem(itemDto, user);
         Item secondItem = Item.builder().id(1L).name("item2Name").description("item2Desc").available(true)
                 .owner(user).build();
-
-        List<Item> items = Arrays.asList(item, secondItem);
         int from = 0;
         int size = 10;
 
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
-        when(itemRepository.findByOwner(user, PageRequest.of(from, size))).thenReturn(items);
-        when(commentRepository.findByItemOrderByIdAsc(item)).thenReturn(Collections.emptyList());
-        when(commentRepository.findByItemOrderByIdAsc(secondItem)).thenReturn(Collections.emptyList());
-        when(bookingRepository.findByItem(item)).thenReturn(Collections.emptyList());
-        when(bookingRepository.findByItem(secondItem)).thenReturn(Collections.emptyList());
+        when(userCache.findById(userId)).thenReturn(Optional.of(user));
+        when(itemSummaryRepository.findOwnerPage(userId, PageRequest.of(from, size)))
+                .thenReturn(List.of(toSummary(item, null), toSummary(secondItem, null)));
+        when(commentRepository.findLatestIdsByItemIdIn(anyList(), anyInt())).thenReturn(Collections.emptyList());
 
         Collection<ItemDto> userItems = itemService.getAllItemsByOwnerId(userId, from, size);
 
         assertNotNull(userItems);
         assertEquals(2, userItems.size());
 
-        verify(userRepository).findById(userId);
-        verify(itemRepository).findByOwner(user, PageRequest.of(0, size));
-        verify(commentRepository, times(2)).findByItemOrderByIdAsc(any(Item.class));
-        verify(bookingRepository, times(2)).findByItem(any(Item.class));
+        verify(userCache).findById(userId);
+        verifyNoInteractions(itemSummaryUpdater);
+        verify(itemSummaryRepository).findOwnerPage(userId, PageRequest.of(0, size));
+        verify(commentRepository).findLatestIdsByItemIdIn(List.of(item.getId(), secondItem.getId()),
+                ItemServiceImpl.COMMENTS_PREVIEW_SIZE);
+        verify(commentRepository, never()).findByIdInOrderByIdAsc(anyList());
+        verify(bookingRepository, never()).findLastBookings(anyList(), any(LocalDateTime.class));
+        verify(bookingRepository, never()).findNextBookings(anyList(), any(LocalDateTime.class));
+        verify(commentRepository, never()).findByItemIdOrderByIdDesc(anyLong(), any());
+    }
+
+    @Test
+    void getAllItemsByOwnerId_shouldGroupCommentsByItemAndTakeBookingsFromSummary() {
+        Item secondItem = Item.builder().id(2L).name("item3Name").description("item3Desc").available(true)
+                .owner(user).build();
+        Comment secondComment = Comment.builder().id(2L).text("comment2").item(secondItem).author(booker)
+                .created(LocalDateTime.now()).build();
+        Booking nextBooking = Booking.builder().id(1L).start(LocalDateTime.now().plusDays(1))
+                .end(LocalDateTime.now().plusDays(2)).item(secondItem).booker(booker)
+                .status(BookingStatus.APPROVED).build();
+
+        when(userCache.findById(user.getId())).thenReturn(Optional.of(user));
+        when(itemSummaryRepository.findOwnerPage(user.getId(), PageRequest.of(0, 10)))
+                .thenReturn(List.of(toSummary(secondItem, BookingSnapshot.of(toView(nextBooking))),
+                        toSummary(item, null)));
+        when(commentRepository.findLatestIdsByItemIdIn(List.of(2L, 1L), ItemServiceImpl.COMMENTS_PREVIEW_SIZE))
+                .thenReturn(List.of(comment.getId(), secondComment.getId()));
+        when(commentRepository.findByIdInOrderByIdAsc(List.of(comment.getId(), secondComment.getId())))
+                .thenReturn(List.of(comment, secondComment));
+
+        List<ItemDto> userItems = itemService.getAllItemsByOwnerId(user.getId(), 0, 10);
+
+        assertEquals(2, userItems.size());
+        assertEquals(secondItem.getId(), userItems.get(0).getId());
+        assertEquals(nextBooking.getId(), userItems.get(0).getNextBooking().getId());
+        assertEquals(booker.getId(), userItems.get(0).getNextBooking().getBookerId());
+        assertEquals(List.of(secondComment.getId()), userItems.get(0).getComments().stream()
+                .map(CommentShortDto::getId).collect(Collectors.toList()));
+        assertNull(userItems.get(1).getNextBooking());
+        assertEquals(List.of(comment.getId()), userItems.get(1).getComments().stream()
+                .map(CommentShortDto::getId).collect(Collectors.toList()));
     }
 
     @Test
@@ -315,27 +375,24 @@ class ItemServiceImplTest {
     void searchItems() {
         ItemDto itemDtoForSearch = ItemDto.builder().id(2L).name("Робот-пылесос").description("Моет, чистит")
                 .available(true).build();
-        Item itemForSearch = ItemMapper.toItem(itemDtoForSearch, user);
 
-        when(itemRepository.search("робот", PageRequest.of(0, 10, Sort.by("name")
-                .ascending())))
-                .thenReturn(List.of(itemForSearch));
+        when(itemSearchEngine.search("робот", 0, 10)).thenReturn(List.of(itemDtoForSearch));
 
         Collection<ItemDto> actualItems = itemService.searchItems(1L, "робот", 0, 10);
 
         assertEquals(1, actualItems.size());
         assertTrue(actualItems.contains(itemDtoForSearch));
 
-        verify(itemRepository).search("робот", PageRequest.of(0, 10, Sort.by("name")
-                .ascending()));
+        verify(itemSearchEngine).search("робот", 0, 10);
+        verifyNoInteractions(itemRepository);
     }
 
     @Test
     void addNewComment() {
         when(commentMapper.toComment(any(), any(), any())).thenReturn(comment);
         when(commentRepository.save(any())).thenReturn(comment);
-        when(itemRepository.findById(item.getId())).thenReturn(java.util.Optional.of(item));
-        when(userRepository.findById(user.getId())).thenReturn(java.util.Optional.of(user));
+        when(itemRepository.findWithLockById(item.getId())).thenReturn(java.util.Optional.of(item));
+        when(userCache.findById(user.getId())).thenReturn(java.util.Optional.of(user));
         when(bookingRepository.existsBookingByItemAndBookerAndStatusNotAndStart(any(), any(), any()))
                 .thenReturn(true);
         CommentDto addedComment = itemService.addNewComment(commentShortDto, item.getId(), user.getId());
@@ -347,13 +404,14 @@ class ItemServiceImplTest {
 
         verify(bookingRepository).existsBookingByItemAndBookerAndStatusNotAndStart(eq(item), eq(user), any());
         verify(commentRepository).save(any());
+        assertEquals(1, item.getCommentsCount());
     }
 
     @Test
     public void testAddNewCommentWithNotBooking() {
         when(commentMapper.toComment(any(), any(), any())).thenReturn(comment);
-        when(itemRepository.findById(item.getId())).thenReturn(java.util.Optional.of(item));
-        when(userRepository.findById(user.getId())).thenReturn(java.util.Optional.of(user));
+        when(itemRepository.findWithLockById(item.getId())).thenReturn(java.util.Optional.of(item));
+        when(userCache.findById(user.getId())).thenReturn(java.util.Optional.of(user));
         when(bookingRepository.existsBookingByItemAndBookerAndStatusNotAndStart(any(), any(), any()))
                 .thenReturn(false);
 
@@ -362,30 +420,31 @@ class ItemServiceImplTest {
 
         verify(bookingRepository).existsBookingByItemAndBookerAndStatusNotAndStart(eq(item), eq(user), any());
         verify(commentRepository, never()).save(comment);
+        assertEquals(0, item.getCommentsCount());
     }
 
     @Test
     public void testAddNewCommentWithNotFoundItem() {
-        when(itemRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(itemRepository.findWithLockById(anyLong())).thenReturn(Optional.empty());
 
         assertThrows(NotFoundException.class, () -> itemService
                 .addNewComment(commentShortDto, item.getId(), user.getId()));
 
-        verify(itemRepository).findById(eq(item.getId()));
+        verify(itemRepository).findWithLockById(eq(item.getId()));
         verify(bookingRepository, never()).existsBookingByItemAndBookerAndStatusNotAndStart(any(), any(), any());
         verify(commentRepository, never()).save(comment);
     }
 
     @Test
     public void testAddNewCommentWithNotFoundUser() {
-        when(itemRepository.findById(anyLong())).thenReturn(Optional.of(item));
-        when(userRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(itemRepository.findWithLockById(anyLong())).thenReturn(Optional.of(item));
+        when(userCache.findById(anyLong())).thenReturn(Optional.empty());
 
         assertThrows(NotFoundException.class, () -> itemService
                 .addNewComment(commentShortDto, item.getId(), user.getId()));
 
-        verify(itemRepository).findById(eq(item.getId()));
-        verify(userRepository).findById(eq(user.getId()));
+        verify(itemRepository).findWithLockById(eq(item.getId()));
+        verify(userCache).findById(eq(user.getId()));
         verify(bookingRepository, never()).existsBookingByItemAndBookerAndStatusNotAndStart(any(), any(), any());
         verify(commentRepository, never()).save(comment);
     }
@@ -406,6 +465,43 @@ class ItemServiceImplTest {
         assertThrows(NotFoundException.class, () -> itemService.getCommentById(comment.getId()));
     }
 
+    @Test
+    void getItemComments_shouldReturnNewestFirstWithCursor() {
+        Comment secondComment = Comment.builder().id(2L).text("comment2").item(item).author(booker)
+                .created(LocalDateTime.now()).build();
+        when(itemRepository.existsById(item.getId())).thenReturn(true);
+        when(commentRepository.findByItemIdOrderByIdDesc(item.getId(), PageRequest.of(0, 2)))
+                .thenReturn(List.of(secondComment, comment));
+
+        CursorPage<CommentShortDto> page = itemService.getItemComments(item.getId(), null, 1);
+
+        assertEquals(List.of(secondComment.getId()), page.getContent().stream()
+                .map(CommentShortDto::getId).collect(Collectors.toList()));
+        assertEquals(Cursor.of(secondComment.getId()).encode(), page.getNextCursor());
+    }
+
+    @Test
+    void getItemComments_shouldContinueAfterCursor() {
+        when(itemRepository.existsById(item.getId())).thenReturn(true);
+        when(commentRepository.findByItemIdAndIdLessThanOrderByIdDesc(item.getId(), 2L, PageRequest.of(0, 2)))
+                .thenReturn(List.of(comment));
+
+        CursorPage<CommentShortDto> page = itemService.getItemComments(item.getId(), Cursor.of(2L).encode(), 1);
+
+        assertEquals(1, page.getContent().size());
+        assertNull(page.getNextCursor());
+        verify(commentRepository, never()).findByItemIdOrderByIdDesc(anyLong(), any());
+    }
+
+    @Test
+    void getItemComments_whenItemNotFound_shouldThrow() {
+        when(itemRepository.existsById(100L)).thenReturn(false);
+
+        assertThrows(NotFoundException.class, () -> itemService.getItemComments(100L, null, 10));
+
+        verifyNoInteractions(commentRepository);
+    }
+
     @Test
     void testCommentShortDto() {
         CommentShortDto convertedDto = CommentMapper.toCommentShortDto(comment);
@@ -415,4 +511,19 @@ class ItemServiceImplTest {
         assertEquals(comment.getAuthor().getId(), convertedDto.getId());
         assertEquals(comment.getCreated(), convertedDto.getCreated());
     }
-}
\ No newline at end of file
+
+    private static BookingShortView toView(Booking booking) {
+        return new SpelAwareProxyProjectionFactory().createProjection(BookingShortView.class, Map.of(
+                "id", booking.getId(),
+                "start", booking.getStart(),
+                "end", booking.getEnd(),
+                "itemId", booking.getItem().getId(),
+                "bookerId", booking.getBooker().getId(),
+                "status", booking.getStatus().name()));
+    }
+
+    private static ItemSummary toSummary(Item item, BookingSnapshot nextBooking) {
+        return ItemSummary.builder().itemId(item.getId()).ownerId(item.getOwner().getId()).item(item)
+                .nextBooking(nextBooking).build();
+    }
+}
@@ -0,0 +1,58 @@
+package ru.practicum.shareit.pagination;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.exceptoins.BadRequestException;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CursorPageTest {
+
+    @Test
+    void of_shouldTrimExtraRowAndPointCursorAtLastReturnedRow() {
+        CursorPage<Long> page = CursorPage.of(List.of(5L, 4L, 3L), 2, Cursor::of);
+
+        assertEquals(List.of(5L, 4L), page.getContent());
+        assertEquals(Cursor.of(4L), Cursor.decode(page.getNextCursor()));
+    }
+
+    @Test
+    void of_shouldNotReturnCursorForLastPage() {
+        CursorPage<Long> page = CursorPage.of(List.of(5L, 4L), 2, Cursor::of);
+
+        assertEquals(List.of(5L, 4L), page.getContent());
+        assertNull(page.getNextCursor());
+        assertNull(page.toResponseEntity("W/\"1\"").getHeaders().getFirst(CursorPage.NEXT_CURSOR_HEADER));
+    }
+
+    @Test
+    void toResponseEntity_shouldReturnETagAndCursorHeaders() {
+        CursorPage<Long> page = CursorPage.of(List.of(5L, 4L, 3L), 2, Cursor::of);
+
+        assertEquals("W/\"2-9-0\"", page.toResponseEntity("W/\"2-9-0\"").getHeaders().getETag());
+        assertEquals(page.getNextCursor(),
+                page.toResponseEntity("W/\"2-9-0\"").getHeaders().getFirst(CursorPage.NEXT_CURSOR_HEADER));
+    }
+
+    @Test
+    void decode_shouldRestoreKeyAndId() {
+        LocalDateTime created = LocalDateTime.of(2023, 1, 2, 10, 0, 0, 123000);
+        Cursor cursor = Cursor.decode(Cursor.of(7L, created).encode());
+
+        assertEquals(7L, cursor.getId());
+        assertEquals(created, cursor.key(LocalDateTime::parse));
+    }
+
+    @Test
+    void decode_shouldTreatBlankTokenAsFirstPage() {
+        assertNull(Cursor.decode(""));
+    }
+
+    @Test
+    void decode_shouldRejectMalformedToken() {
+        assertThrows(BadRequestException.class, () -> Cursor.decode("не курсор"));
+        assertThrows(BadRequestException.class, () -> Cursor.of(1L, "вчера").key(LocalDateTime::parse));
+    }
+}
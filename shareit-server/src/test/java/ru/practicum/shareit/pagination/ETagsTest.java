@@ -0,0 +1,68 @@
+package ru.practicum.shareit.pagination;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ETagsTest {
+
+    private static final String VERSION = new ListVersion(2L, 9L, LocalDateTime.of(2023, 1, 2, 10, 0)).value();
+
+    @Test
+    void ok_shouldReturnContentWithETagOfVersion() {
+        ResponseEntity<Collection<Long>> response = ETags.ok(request(null), VERSION, () -> List.of(5L, 4L));
+
+        assertNotNull(response);
+        assertEquals(List.of(5L, 4L), response.getBody());
+        assertEquals(ETags.of(VERSION), response.getHeaders().getETag());
+    }
+
+    @Test
+    void ok_shouldNotLoadContentWhenVersionMatches() {
+        ServletWebRequest request = request(ETags.of(VERSION));
+
+        ResponseEntity<Collection<Long>> response = ETags.ok(request, VERSION,
+                () -> fail("страница не должна загружаться"));
+
+        assertNull(response);
+        assertEquals(304, request.getResponse().getStatus());
+        assertEquals(ETags.of(VERSION), request.getResponse().getHeader(HttpHeaders.ETAG));
+    }
+
+    @Test
+    void okPage_shouldNotLoadPageWhenVersionMatches() {
+        ServletWebRequest request = request(ETags.of(VERSION));
+
+        assertNull(ETags.<Long>okPage(request, VERSION, () -> fail("страница не должна загружаться")));
+        assertEquals(304, request.getResponse().getStatus());
+    }
+
+    @Test
+    void listVersion_shouldChangeWithRowsAndUpdateTime() {
+        LocalDateTime updatedAt = LocalDateTime.of(2023, 1, 2, 10, 0);
+
+        assertEquals("0-0-0", new ListVersion(0L, null, null).value());
+        assertNotEquals(VERSION, new ListVersion(2L, 9L, updatedAt.plusNanos(1_000)).value());
+        // строка с тем же числом строк, но другим id вошла в выборку
+        assertNotEquals(VERSION, new ListVersion(2L, 10L, updatedAt).value());
+        assertEquals(new ListVersion(2L, 9L, updatedAt.plusDays(1)).value(),
+                new ListVersion(2L, 9L, updatedAt, updatedAt.plusDays(1), null).value());
+    }
+
+    private static ServletWebRequest request(String ifNoneMatch) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/items");
+        if (ifNoneMatch != null) {
+            request.addHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        return new ServletWebRequest(request, new MockHttpServletResponse());
+    }
+}
@@ -5,7 +5,10 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.model.ItemRequestMapper;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
@@ -26,7 +29,7 @@ class ItemRequestRepositoryTest {
     private final ItemRequest request = ItemRequest.builder()
             .description("Куплю ручку")
             .requestor(requestor)
-            .created(LocalDateTime.now())
+            .created(LocalDateTime.now().withNano(0))
             .build();
 
     @BeforeEach
@@ -55,4 +58,27 @@ class ItemRequestRepositoryTest {
         assertEquals(requestor, actualRequest.getRequestor());
         assertNotNull(actualRequest.getCreated());
     }
-}
\ No newline at end of file
+
+    @Test
+    void findPageAfter_shouldSkipOwnRequestsAndContinueFromCursor() {
+        ItemRequest older = requestRepository.save(ItemRequest.builder()
+                .description("Куплю карандаш")
+                .requestor(requestor)
+                .created(request.getCreated().minusDays(1))
+                .build());
+        requestRepository.save(ItemRequest.builder()
+                .description("Куплю ластик")
+                .requestor(owner)
+                .created(request.getCreated().plusDays(1))
+                .build());
+
+        List<ItemRequestDto> firstPage = requestRepository.findPage(owner.getId(), PageRequest.of(0, 1));
+        List<ItemRequestDto> secondPage = requestRepository.findPageAfter(owner.getId(), request.getCreated(),
+                request.getId(), PageRequest.of(0, 1));
+
+        assertEquals(List.of(ItemRequestMapper.toItemRequestDto(request)), firstPage);
+        assertEquals(List.of(ItemRequestMapper.toItemRequestDto(older)), secondPage);
+        assertTrue(requestRepository.findPageAfter(owner.getId(), older.getCreated(), older.getId(),
+                PageRequest.of(0, 1)).isEmpty());
+    }
+}
@@ -81,4 +81,19 @@ public class IntItemRequestServiceImplTest {
         assertEquals(requestor.getId(), actualRequest.getRequestorId());
         assertNotNull(actualRequest.getCreated());
     }
+
+    @Test
+    void testGetAllRequestsForAllUsers_shouldNotReturnShortPageForOwnRequests() {
+        User user = userRepository.save(User.builder().name("user").email("user@mail.ru").build());
+        for (int i = 1; i <= 3; i++) {
+            requestRepository.save(ItemRequest.builder().description("Куплю велосипед " + i).requestor(user)
+                    .created(request.getCreated().plusMinutes(i)).build());
+        }
+
+        List<ItemRequestDto> actualRequests = new ArrayList<>(requestService.getAllRequestsForAllUsers(user.getId(), 0, 1));
+
+        // собственные более новые запросы не занимают место на странице
+        assertEquals(1, actualRequests.size());
+        assertEquals(request.getId(), actualRequests.get(0).getId());
+    }
 }
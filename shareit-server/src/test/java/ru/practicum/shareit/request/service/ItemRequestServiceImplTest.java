@@ -6,15 +6,15 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.audit.AuditLog;
 import ru.practicum.shareit.exceptoins.NotFoundException;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
-import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserCache;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -31,11 +31,13 @@ import static org.mockito.Mockito.*;
 class ItemRequestServiceImplTest {
 
     @Mock
-    UserRepository userRepository;
+    UserCache userCache;
     @Mock
     ItemRepository itemRepository;
     @Mock
     ItemRequestRepository requestRepository;
+    @Mock
+    AuditLog auditLog;
     @InjectMocks
     ItemRequestServiceImpl requestService;
     private final User requestor = new User(2L, "UserName", "username@mail.ru");
@@ -55,7 +57,7 @@ class ItemRequestServiceImplTest {
 
     @Test
     void addRequest() {
-        when(userRepository.findById(2L)).thenReturn(Optional.of(requestor));
+        when(userCache.findById(2L)).thenReturn(Optional.of(requestor));
 
         ItemRequestDto result = requestService.addRequest(requestDto, requestor.getId());
 
@@ -63,18 +65,18 @@ class ItemRequestServiceImplTest {
         assertEquals(requestDto.getDescription(), result.getDescription());
         assertEquals(requestor.getId(), result.getRequestorId());
 
-        verify(userRepository).findById(anyLong());
+        verify(userCache).findById(anyLong());
         verify(requestRepository).save(any(ItemRequest.class));
     }
 
     @Test
     void addRequest_shouldThrowNotFoundException_whenUserNotFound() {
 
-        when(userRepository.findById(100L)).thenReturn(Optional.empty());
+        when(userCache.findById(100L)).thenReturn(Optional.empty());
 
         assertThrows(NotFoundException.class, () -> requestService.addRequest(requestDto, 100L));
 
-        verify(userRepository).findById(100L);
+        verify(userCache).findById(100L);
         verify(requestRepository, never()).save(any(ItemRequest.class));
     }
 
@@ -83,7 +85,7 @@ class ItemRequestServiceImplTest {
         List<ItemRequest> requests = new ArrayList<>();
         requests.add(itemRequest);
 
-        when(userRepository.findById(2L)).thenReturn(Optional.of(requestor));
+        when(userCache.findById(2L)).thenReturn(Optional.of(requestor));
         when(requestRepository.findAllByRequestorOrderByCreated(requestor)).thenReturn(requests);
 
         Collection<ItemRequestDto> result = requestService.getUserRequests(requestor.getId());
@@ -91,24 +93,24 @@ class ItemRequestServiceImplTest {
         assertNotNull(result);
         assertEquals(1, result.size());
 
-        verify(userRepository).findById(requestor.getId());
+        verify(userCache).findById(requestor.getId());
         verify(requestRepository).findAllByRequestorOrderByCreated(requestor);
     }
 
     @Test
     void getUserRequests_shouldThrowNotFoundException_whenUserNotFound() {
-        when(userRepository.findById(100L)).thenReturn(Optional.empty());
+        when(userCache.findById(100L)).thenReturn(Optional.empty());
 
         assertThrows(NotFoundException.class, () -> requestService.getUserRequests(100L));
 
-        verify(userRepository).findById(100L);
+        verify(userCache).findById(100L);
         verify(requestRepository, never()).findAllByRequestorOrderByCreated(any(User.class));
-        verifyNoMoreInteractions(userRepository, requestRepository);
+        verifyNoMoreInteractions(userCache, requestRepository);
     }
 
     @Test
     void getRequestById() {
-        when(userRepository.findById(2L)).thenReturn(Optional.of(requestor));
+        when(userCache.findById(2L)).thenReturn(Optional.of(requestor));
         when(requestRepository.findById(itemRequest.getId())).thenReturn(Optional.of(itemRequest));
 
         ItemRequestDto result = requestService.getRequestById(requestor.getId(), itemRequest.getId());
@@ -119,39 +121,38 @@ class ItemRequestServiceImplTest {
         assertEquals(result.getCreated(), itemRequest.getCreated());
         assertNotNull(result.getItems());
 
-        verify(userRepository).findById(requestor.getId());
+        verify(userCache).findById(requestor.getId());
         verify(requestRepository).findById(itemRequest.getId());
     }
 
     @Test
     void getRequestById_shouldThrowNotFoundException_whenUserNotFound() {
-        when(userRepository.findById(100L)).thenReturn(Optional.empty());
+        when(userCache.findById(100L)).thenReturn(Optional.empty());
 
         assertThrows(NotFoundException.class, () -> requestService.getRequestById(100L, any()));
 
-        verify(userRepository).findById(100L);
+        verify(userCache).findById(100L);
         verify(requestRepository, never()).findById(anyLong());
     }
 
     @Test
     void getRequestById_shouldThrowNotFoundException_whenRequestNotFound() {
-        when(userRepository.findById(2L)).thenReturn(Optional.of(requestor));
+        when(userCache.findById(2L)).thenReturn(Optional.of(requestor));
         when(requestRepository.findById(itemRequest.getId())).thenReturn(Optional.empty());
 
         assertThrows(NotFoundException.class, () -> requestService.getRequestById(requestor.getId(), itemRequest.getId()));
 
-        verify(userRepository).findById(requestor.getId());
+        verify(userCache).findById(requestor.getId());
         verify(requestRepository).findById(itemRequest.getId());
-        verifyNoMoreInteractions(userRepository, requestRepository);
+        verifyNoMoreInteractions(userCache, requestRepository);
     }
 
     @Test
     void getAllRequestsForAllUsers() {
-        ItemRequest secondRequest = ItemRequest.builder().id(2L).description("req2Desc").requestor(requestor)
-                .created(LocalDateTime.now()).build();
-        when(userRepository.findById(1L)).thenReturn(Optional.of(owner));
-        when(requestRepository.findAll(any(PageRequest.class)))
-                .thenReturn(new PageImpl<>(List.of(itemRequest, secondRequest)));
+        ItemRequestDto secondRequest = new ItemRequestDto(2L, "req2Desc", requestor.getId(), LocalDateTime.now());
+        when(userCache.findById(1L)).thenReturn(Optional.of(owner));
+        when(requestRepository.findPage(owner.getId(), PageRequest.of(0, 10)))
+                .thenReturn(List.of(requestDto, secondRequest));
 
         Collection<ItemRequestDto> result = requestService
                 .getAllRequestsForAllUsers(owner.getId(), 0, 10);
@@ -163,19 +164,19 @@ class ItemRequestServiceImplTest {
         assertNotNull(requestDto.getCreated());
         assertEquals(2, result.size());
 
-        verify(userRepository).findById(owner.getId());
-        verify(requestRepository).findAll(any(PageRequest.class));
+        verify(userCache).findById(owner.getId());
+        verify(requestRepository).findPage(owner.getId(), PageRequest.of(0, 10));
     }
 
     @Test
     void getAllRequestsForAllUsers_shouldThrowNotFoundException_whenUserNotFound() {
-        when(userRepository.findById(100L)).thenReturn(Optional.empty());
+        when(userCache.findById(100L)).thenReturn(Optional.empty());
 
         assertThrows(NotFoundException.class, () -> {
             requestService.getAllRequestsForAllUsers(100L, 0, 10);
         });
 
-        verify(userRepository).findById(100L);
-        verify(requestRepository, never()).findAll(any(PageRequest.class));
+        verify(userCache).findById(100L);
+        verify(requestRepository, never()).findPage(anyLong(), any(PageRequest.class));
     }
 }
\ No newline at end of file
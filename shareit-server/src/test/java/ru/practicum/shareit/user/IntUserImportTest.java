@@ -0,0 +1,127 @@
+package ru.practicum.shareit.user;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.SneakyThrows;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.user.dto.UserImportErrorDto;
+import ru.practicum.shareit.user.dto.UserImportResultDto;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:user-import",
+        "shareit.users.import.batch-size=50",
+        "spring.jpa.properties.hibernate.generate_statistics=true"})
+@AutoConfigureMockMvc
+class IntUserImportTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteAll();
+    }
+
+    @Test
+    @SneakyThrows
+    void importUsers_shouldCreateValidLinesAndReportTheRest() {
+        userRepository.save(User.builder().name("old").email("old@mail.ru").build());
+        String ndjson = String.join("\n",
+                "{\"name\":\"first\",\"email\":\"first@mail.ru\"}",
+                "{\"name\":\"broken\",",
+                "",
+                "{\"name\":\"no email\"}",
+                "{\"name\":\"second\",\"email\":\"second@mail.ru\"}",
+                "{\"name\":\"old again\",\"email\":\"old@mail.ru\"}",
+                "{\"name\":\"first again\",\"email\":\"first@mail.ru\"}",
+                "{\"name\":\"third\",\"email\":\"third@mail.ru\"}");
+
+        String response = mockMvc.perform(post("/users/bulk")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(ndjson))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        UserImportResultDto result = objectMapper.readValue(response, UserImportResultDto.class);
+
+        assertEquals(7L, result.getLines());
+        assertEquals(3L, result.getCreated());
+        assertEquals(List.of(2L, 4L, 6L, 7L), result.getErrors().stream()
+                .map(UserImportErrorDto::getLine).collect(Collectors.toList()));
+        assertEquals(List.of(400, 400, 409, 409), result.getErrors().stream()
+                .map(UserImportErrorDto::getStatus).collect(Collectors.toList()));
+        assertEquals(List.of("first@mail.ru", "old@mail.ru", "second@mail.ru", "third@mail.ru"),
+                userRepository.findAll().stream().map(User::getEmail).sorted().collect(Collectors.toList()));
+    }
+
+    @Test
+    @SneakyThrows
+    void importUsers_shouldRejectInvalidNameAndLongEmailAsBadRequest() {
+        String ndjson = String.join("\n",
+                "{\"email\":\"noname@mail.ru\"}",
+                "{\"name\":\" \",\"email\":\"blank@mail.ru\"}",
+                "{\"name\":\"" + "a".repeat(256) + "\",\"email\":\"long-name@mail.ru\"}",
+                "{\"name\":\"long email\",\"email\":\"" + "a".repeat(512) + "@mail.ru\"}",
+                "{\"name\":\"valid\",\"email\":\"valid@mail.ru\"}");
+
+        String response = mockMvc.perform(post("/users/bulk")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(ndjson))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        UserImportResultDto result = objectMapper.readValue(response, UserImportResultDto.class);
+
+        assertEquals(1L, result.getCreated());
+        assertEquals(List.of(1L, 2L, 3L, 4L), result.getErrors().stream()
+                .map(UserImportErrorDto::getLine).collect(Collectors.toList()));
+        assertEquals(List.of(400, 400, 400, 400), result.getErrors().stream()
+                .map(UserImportErrorDto::getStatus).collect(Collectors.toList()));
+        assertEquals(List.of("valid@mail.ru"), userRepository.findAll().stream()
+                .map(User::getEmail).collect(Collectors.toList()));
+    }
+
+    @Test
+    @SneakyThrows
+    void importUsers_shouldInsertBatchWithFewStatements() {
+        String ndjson = IntStream.range(0, 100)
+                .mapToObj(i -> "{\"name\":\"user" + i + "\",\"email\":\"user" + i + "@mail.ru\"}")
+                .collect(Collectors.joining("\n"));
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        mockMvc.perform(post("/users/bulk")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(ndjson))
+                .andExpect(status().isOk());
+
+        assertEquals(100, userRepository.count());
+        // два пакета импорта: проверка адресов, блок ключей из последовательности и пакетная вставка на каждый,
+        // а не по запросу на каждого пользователя
+        assertTrue(statistics.getPrepareStatementCount() < 10, "statements: "
+                + statistics.getPrepareStatementCount());
+    }
+}
@@ -0,0 +1,78 @@
+package ru.practicum.shareit.user;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserCache;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserCacheTest {
+
+    @Mock
+    UserRepository userRepository;
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private UserCache userCache;
+    private final User user = new User(1L, "User", "user@mail.ru");
+
+    @BeforeEach
+    void setUp() {
+        userCache = new UserCache(userRepository, meterRegistry, 100, Duration.ofMinutes(10));
+    }
+
+    @Test
+    void findById_shouldLoadUserOnlyOnce() {
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+
+        assertEquals(Optional.of(user), userCache.findById(1L));
+        assertEquals(Optional.of(user), userCache.findById(1L));
+
+        verify(userRepository, times(1)).findById(1L);
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "users").tag("result", "hit")
+                .functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "users").tag("result", "miss")
+                .functionCounter().count());
+    }
+
+    @Test
+    void findById_shouldNotCacheMissingUser() {
+        when(userRepository.findById(1L)).thenReturn(Optional.empty(), Optional.of(user));
+
+        assertTrue(userCache.findById(1L).isEmpty());
+        assertEquals(Optional.of(user), userCache.findById(1L));
+
+        verify(userRepository, times(2)).findById(1L);
+    }
+
+    @Test
+    void findById_shouldReturnCopyOfCachedUser() {
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+
+        userCache.findById(1L).orElseThrow().setName("Changed");
+
+        assertEquals("User", userCache.findById(1L).orElseThrow().getName());
+    }
+
+    @Test
+    void invalidate_shouldReloadUserFromRepository() {
+        User updatedUser = new User(1L, "UpdatedUser", "user@mail.ru");
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user), Optional.of(updatedUser));
+
+        userCache.findById(1L);
+        userCache.invalidate(1L);
+
+        assertEquals(Optional.of(updatedUser), userCache.findById(1L));
+        verify(userRepository, times(2)).findById(1L);
+    }
+}
@@ -2,15 +2,20 @@ package ru.practicum.shareit.user;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.audit.AuditLog;
 import ru.practicum.shareit.exceptoins.NotFoundException;
+import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.dto.UserUpdateDto;
 import ru.practicum.shareit.user.model.UserMapper;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserCache;
+import ru.practicum.shareit.user.service.UserImporter;
 import ru.practicum.shareit.user.service.UserServiceImpl;
 
 import java.util.Collection;
@@ -26,6 +31,14 @@ public class UserServiceImplTest {
 
     @Mock
     UserRepository userRepository;
+    @Mock
+    ItemRepository itemRepository;
+    @Mock
+    UserCache userCache;
+    @Mock
+    AuditLog auditLog;
+    @Mock
+    UserImporter userImporter;
     @InjectMocks
     private UserServiceImpl userService;
     private final UserDto userDto = UserDto.builder().id(1L).name("User").email("user@mail.ru").build();
@@ -73,6 +86,7 @@ public class UserServiceImplTest {
 
         verify(userRepository).findById(userId);
         verify(userRepository).save(user);
+        verify(userCache).invalidate(userId);
     }
 
     @Test
@@ -84,6 +98,7 @@ public class UserServiceImplTest {
 
         verify(userRepository).findById(userId);
         verify(userRepository, never()).save(any(User.class));
+        verifyNoInteractions(userCache);
     }
 
     @Test
@@ -92,7 +107,10 @@ public class UserServiceImplTest {
         doNothing().when(userRepository).deleteById(userId);
         userService.deleteUser(userId);
 
-        verify(userRepository).deleteById(userId);
+        InOrder inOrder = inOrder(itemRepository, userRepository);
+        inOrder.verify(itemRepository).recountCommentsWithoutAuthor(userId);
+        inOrder.verify(userRepository).deleteById(userId);
+        verify(userCache).invalidate(userId);
     }
 
     @Test
@@ -11,9 +11,13 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 import ru.practicum.shareit.exceptoins.BadRequestException;
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.dto.UserImportErrorDto;
+import ru.practicum.shareit.user.dto.UserImportResultDto;
 import ru.practicum.shareit.user.dto.UserUpdateDto;
 import ru.practicum.shareit.user.service.UserService;
 
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -52,6 +56,26 @@ class UserControllerTest {
         verify(userService).addUser(userDto);
     }
 
+    @SneakyThrows
+    @Test
+    void testImportUsers() {
+        UserImportResultDto importResult = UserImportResultDto.builder().lines(2L).created(1L)
+                .errors(List.of(new UserImportErrorDto(2L, 400, "Некорректный email"))).build();
+        when(userService.importUsers(any(InputStream.class))).thenReturn(importResult);
+
+        String result = mockMvc.perform(post("/users/bulk")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content("{\"name\":\"user\",\"email\":\"user@email.ru\"}\n{\"name\":\"user2\"}\n"))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString(StandardCharsets.UTF_8);
+
+        assertEquals(objectMapper.writeValueAsString(importResult), result);
+
+        verify(userService).importUsers(any(InputStream.class));
+    }
+
     @SneakyThrows
     @Test
     void testGetUsers() {